@@ -14,6 +14,7 @@ import cpw.mods.fml.common.Mod.Instance;
 import cpw.mods.fml.common.SidedProxy;
 import cpw.mods.fml.common.event.FMLInitializationEvent;
 import cpw.mods.fml.common.event.FMLPreInitializationEvent;
+import cpw.mods.fml.common.event.FMLServerStartingEvent;
 import cpw.mods.fml.common.network.simpleimpl.SimpleNetworkWrapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -43,4 +44,9 @@ public class Almura {
     public void onInitializationEvent(FMLInitializationEvent event) {
         PROXY.onInitialization(event);
     }
+
+    @EventHandler
+    public void onServerStartingEvent(FMLServerStartingEvent event) {
+        PROXY.onServerStarting(event);
+    }
 }
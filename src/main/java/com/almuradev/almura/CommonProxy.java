@@ -11,9 +11,15 @@ import com.almuradev.almura.pack.INodeContainer;
 import com.almuradev.almura.pack.IPackObject;
 import com.almuradev.almura.pack.Pack;
 import com.almuradev.almura.pack.PackCreator;
+import com.almuradev.almura.pack.PackDocumentCache;
 import com.almuradev.almura.pack.PackKeys;
 import com.almuradev.almura.pack.container.AlmuraContainerHandler;
 import com.almuradev.almura.pack.container.PackContainerTileEntity;
+import com.almuradev.almura.pack.crop.CropFieldIndex;
+import com.almuradev.almura.pack.crop.CropGrowthEffects;
+import com.almuradev.almura.pack.crop.CropGrowthEngine;
+import com.almuradev.almura.pack.crop.HydrationIndex;
+import com.almuradev.almura.pack.crop.OfflineCropGrowth;
 import com.almuradev.almura.pack.crop.PackCrops;
 import com.almuradev.almura.pack.crop.PackSeeds;
 import com.almuradev.almura.pack.crop.Stage;
@@ -22,9 +28,11 @@ import com.almuradev.almura.pack.mapper.EntityMapper;
 import com.almuradev.almura.pack.mapper.GameObjectMapper;
 import com.almuradev.almura.pack.node.SoilNode;
 import com.almuradev.almura.recipe.furnace.PackFuelHandler;
+import com.almuradev.almura.server.command.CommandReloadPacks;
 import com.almuradev.almura.server.network.play.S00AdditionalWorldInformation;
 import com.almuradev.almura.server.network.play.S01OpenBlockInformationGui;
 import com.almuradev.almura.server.network.play.S02OpenBlockWireframeGui;
+import com.almuradev.almura.server.network.play.S03CropGrowthEffects;
 import com.almuradev.almura.tabs.Tabs;
 import com.almuradev.almurasdk.lang.LanguageRegistry;
 import com.almuradev.almurasdk.lang.Languages;
@@ -32,8 +40,10 @@ import com.google.common.collect.Lists;
 import cpw.mods.fml.common.FMLCommonHandler;
 import cpw.mods.fml.common.event.FMLInitializationEvent;
 import cpw.mods.fml.common.event.FMLPreInitializationEvent;
+import cpw.mods.fml.common.event.FMLServerStartingEvent;
 import cpw.mods.fml.common.eventhandler.SubscribeEvent;
 import cpw.mods.fml.common.gameevent.PlayerEvent;
+import cpw.mods.fml.common.gameevent.TickEvent;
 import cpw.mods.fml.common.network.NetworkRegistry;
 import cpw.mods.fml.common.registry.GameRegistry;
 import cpw.mods.fml.relauncher.Side;
@@ -53,12 +63,12 @@ import net.minecraft.tileentity.TileEntitySign;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.entity.player.BonemealEvent;
 import net.minecraftforge.event.entity.player.PlayerInteractEvent;
+import net.minecraftforge.event.world.ChunkDataEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
 import ninja.leaping.configurate.ConfigurationNode;
-import ninja.leaping.configurate.yaml.YAMLConfigurationLoader;
 
 import java.io.IOException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 
@@ -68,6 +78,7 @@ public class CommonProxy {
         Almura.NETWORK_FORGE.registerMessage(S00AdditionalWorldInformation.class, S00AdditionalWorldInformation.class, 0, Side.CLIENT);
         Almura.NETWORK_FORGE.registerMessage(S01OpenBlockInformationGui.class, S01OpenBlockInformationGui.class, 1, Side.CLIENT);
         Almura.NETWORK_FORGE.registerMessage(S02OpenBlockWireframeGui.class, S02OpenBlockWireframeGui.class, 2, Side.CLIENT);
+        Almura.NETWORK_FORGE.registerMessage(S03CropGrowthEffects.class, S03CropGrowthEffects.class, 3, Side.CLIENT);
         NetworkRegistry.INSTANCE.registerGuiHandler(Almura.INSTANCE, new AlmuraContainerHandler());
         GameRegistry.registerTileEntity(PackContainerTileEntity.class, Almura.MOD_ID + ":pack_container");
         GameRegistry.registerFuelHandler(new PackFuelHandler());
@@ -80,18 +91,23 @@ public class CommonProxy {
     }
 
     public void onInitialization(FMLInitializationEvent event) {
+        LoadProfiler.Section section = LoadProfiler.begin(LoadProfiler.STAGE_GAME_OBJECT_MAPPER);
         try {
             GameObjectMapper.load();
         } catch (IOException e) {
             Almura.LOGGER.error("Failed to load mappings file in the config folder.", e);
         }
+        section.end(0);
 
+        section = LoadProfiler.begin(LoadProfiler.STAGE_ENTITY_MAPPER);
         try {
             EntityMapper.load();
         } catch (IOException e) {
             Almura.LOGGER.error("Failed to load entity_mappings file in the config folder.", e);
         }
+        section.end(0);
 
+        section = LoadProfiler.begin(LoadProfiler.STAGE_ON_POST_CREATE);
         for (Map.Entry<String, Pack> entry : Pack.getPacks().entrySet()) {
             try {
                 onPostCreate(entry.getValue());
@@ -99,7 +115,9 @@ public class CommonProxy {
                 e.printStackTrace();
             }
         }
+        section.end(Pack.getPacks().size());
 
+        section = LoadProfiler.begin(LoadProfiler.STAGE_ON_LOAD_FINISHED);
         for (Map.Entry<String, Pack> entry : Pack.getPacks().entrySet()) {
             try {
                 onLoadFinished(entry.getValue());
@@ -107,8 +125,15 @@ public class CommonProxy {
                 e.printStackTrace();
             }
         }
+        section.end(Pack.getPacks().size());
 
+        PackDocumentCache.release();
+        Pack.logModelUsage();
+
+        section = LoadProfiler.begin(LoadProfiler.STAGE_LANGUAGE_REGISTRY);
         LanguageRegistry.injectIntoForge();
+        section.end(0);
+        LoadProfiler.report();
 
         for (Languages entry : Languages.values()) {
             final Map<String, String> value = LanguageRegistry.get(entry);
@@ -118,8 +143,14 @@ public class CommonProxy {
         }
     }
 
+    public void onServerStarting(FMLServerStartingEvent event) {
+        event.registerServerCommand(new CommandReloadPacks());
+    }
+
     //Stage 1 loader
     public void onCreate(Pack pack) {
+        final LoadProfiler.Section section = LoadProfiler.begin(LoadProfiler.STAGE_ON_CREATE, pack.getName(), "");
+
         //Stage 1a -> Register blocks
         for (Block block : pack.getBlocks()) {
             if (block instanceof IPackObject) {
@@ -140,18 +171,20 @@ public class CommonProxy {
         }
 
         Almura.LOGGER.info("Loaded -> " + pack);
+        section.end(pack.getBlocks().size() + pack.getItems().size());
     }
 
     //Stage 2 loader
     private void onPostCreate(Pack pack) throws IOException, IOException {
         final List<Item> seedsToAdd = Lists.newArrayList();
+        final LoadProfiler.Section packSection = LoadProfiler.begin(LoadProfiler.STAGE_ON_POST_CREATE, pack.getName(), "");
 
         //Stage 2a -> Collision, Seeds, Stage (Collision)
         for (Block block : pack.getBlocks()) {
             if (block instanceof IPackObject && block instanceof INodeContainer) {
-                final ConfigurationNode reader = YAMLConfigurationLoader.builder()
-                        .setFile(Paths.get(Filesystem.CONFIG_YML_PATH.toString(), ((IPackObject) block).getPack().getName(),
-                                ((IPackObject) block).getIdentifier() + ".yml").toFile()).build().load();
+                final LoadProfiler.Section fileSection =
+                        LoadProfiler.begin(LoadProfiler.STAGE_ON_POST_CREATE, pack.getName(), ((IPackObject) block).getIdentifier() + ".yml");
+                final ConfigurationNode reader = PackDocumentCache.get(((IPackObject) block).getPack(), ((IPackObject) block).getIdentifier());
 
                 if (block instanceof PackCrops) {
                     final SoilNode soilNode = PackCreator.createSoilNode(((IPackObject) block).getPack(), ((IPackObject) block).getIdentifier(),
@@ -191,6 +224,7 @@ public class CommonProxy {
                                     reader.getNode(PackKeys.NODE_COLLISION.getKey())));
 
                 }
+                fileSection.end(1);
             }
         }
 
@@ -198,16 +232,19 @@ public class CommonProxy {
         for (Item item : seedsToAdd) {
             pack.addItem(item);
         }
+        packSection.end(pack.getBlocks().size() + seedsToAdd.size());
     }
 
     //Stage 3 loader
     private void onLoadFinished(Pack pack) throws IOException {
+        final LoadProfiler.Section packSection = LoadProfiler.begin(LoadProfiler.STAGE_ON_LOAD_FINISHED, pack.getName(), "");
+
         //Stage 3a -> Block Break, Recipes
         for (Block block : pack.getBlocks()) {
             if (block instanceof IPackObject && block instanceof INodeContainer) {
-                final ConfigurationNode reader = YAMLConfigurationLoader.builder()
-                        .setFile(Paths.get(Filesystem.CONFIG_YML_PATH.toString(), ((IPackObject) block).getPack().getName(),
-                                ((IPackObject) block).getIdentifier() + ".yml").toFile()).build().load();
+                final LoadProfiler.Section fileSection =
+                        LoadProfiler.begin(LoadProfiler.STAGE_ON_LOAD_FINISHED, pack.getName(), ((IPackObject) block).getIdentifier() + ".yml");
+                final ConfigurationNode reader = PackDocumentCache.get(((IPackObject) block).getPack(), ((IPackObject) block).getIdentifier());
 
                 if (block instanceof PackCrops) {
                     for (Stage stage : ((PackCrops) block).getStages().values()) {
@@ -229,21 +266,21 @@ public class CommonProxy {
                 ((INodeContainer) block).addNode(
                         PackCreator.createRecipeNode(((IPackObject) block).getPack(), ((IPackObject) block).getIdentifier(), block,
                                 reader.getNode(PackKeys.NODE_RECIPES.getKey())));
+                fileSection.end(1);
             }
         }
 
         //Stage 3b -> Item Recipes
         for (Item item : pack.getItems()) {
             if (item instanceof IPackObject && item instanceof INodeContainer) {
-                final Path path;
+                final String identifier;
                 if (item instanceof PackSeeds) {
-                    path = Paths.get(Filesystem.CONFIG_YML_PATH.toString(), ((IPackObject) item).getPack().getName(),
-                            ((PackCrops) ((ItemSeeds) item).field_150925_a).getIdentifier() + ".yml");
+                    identifier = ((PackCrops) ((ItemSeeds) item).field_150925_a).getIdentifier();
                 } else {
-                    path = Paths.get(Filesystem.CONFIG_YML_PATH.toString(), ((IPackObject) item).getPack().getName(),
-                            ((IPackObject) item).getIdentifier() + ".yml");
+                    identifier = ((IPackObject) item).getIdentifier();
                 }
-                final ConfigurationNode reader = YAMLConfigurationLoader.builder().setFile(path.toFile()).build().load();
+                final LoadProfiler.Section fileSection = LoadProfiler.begin(LoadProfiler.STAGE_ON_LOAD_FINISHED, pack.getName(), identifier + ".yml");
+                final ConfigurationNode reader = PackDocumentCache.get(((IPackObject) item).getPack(), identifier);
 
                 if (item instanceof PackSeeds) {
                     //Recipes
@@ -256,8 +293,10 @@ public class CommonProxy {
                             PackCreator.createRecipeNode(((IPackObject) item).getPack(), ((IPackObject) item).getIdentifier(), item,
                                     reader.getNode(PackKeys.NODE_RECIPES.getKey())));
                 }
+                fileSection.end(1);
             }
         }
+        packSection.end(pack.getBlocks().size() + pack.getItems().size());
     }
 
     @SubscribeEvent
@@ -323,6 +362,15 @@ public class CommonProxy {
 
     @SubscribeEvent
     public void onPlayerInteractEvent(PlayerInteractEvent event) {
+        // Sneaking with an item skips onBlockActivated, fertilize the whole field instead
+        if (!event.world.isRemote && event.action == PlayerInteractEvent.Action.RIGHT_CLICK_BLOCK && event.entityPlayer.getHeldItem() != null
+                && event.entityPlayer.isSneaking()) {
+            final Block block = event.world.getBlock(event.x, event.y, event.z);
+            if (block instanceof PackCrops && ((PackCrops) block).fertilizeField(event.world, event.x, event.y, event.z, event.entityPlayer) > 0) {
+                event.setCanceled(true);
+                return;
+            }
+        }
         if (!event.world.isRemote && event.action == PlayerInteractEvent.Action.RIGHT_CLICK_BLOCK && event.entityPlayer.getHeldItem() == null
                 && event.entityPlayer.isSneaking()) {
             final TileEntity te = event.world.getTileEntity(event.x, event.y, event.z);
@@ -334,4 +382,44 @@ public class CommonProxy {
             }
         }
     }
+
+    @SubscribeEvent
+    public void onServerTickEvent(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.END) {
+            if (Configuration.CROP_GROWTH_BATCHED) {
+                CropGrowthEngine.onServerTick();
+            }
+            CropGrowthEffects.flush();
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkDataSaveEvent(ChunkDataEvent.Save event) {
+        if (!event.world.isRemote) {
+            OfflineCropGrowth.onChunkSave(event.getChunk(), event.getData());
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkDataLoadEvent(ChunkDataEvent.Load event) {
+        if (!event.world.isRemote) {
+            OfflineCropGrowth.onChunkLoad(event.getChunk(), event.getData());
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkUnloadEvent(ChunkEvent.Unload event) {
+        if (!event.world.isRemote) {
+            CropFieldIndex.onChunkUnload(event.getChunk());
+            HydrationIndex.onChunkUnload(event.getChunk());
+        }
+    }
+
+    @SubscribeEvent
+    public void onWorldUnloadEvent(WorldEvent.Unload event) {
+        if (!event.world.isRemote) {
+            CropFieldIndex.onWorldUnload(event.world);
+            HydrationIndex.onWorldUnload(event.world);
+        }
+    }
 }
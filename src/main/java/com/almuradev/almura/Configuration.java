@@ -29,6 +29,16 @@ public class Configuration {
     private static final Object[] PATH_CLIENT_ITEM_FRAME_RENDER_DISTANCE = new String[]{"client", "item-frame-render-distance"};
     private static final Object[] PATH_CLIENT_SIGN_RENDER_DISTANCE = new String[]{"client", "sign-render-distance"};
     private static final Object[] PATH_CLIENT_CHAT_NOTIFICATIONS = new String[]{"client", "chat-notifications"};
+    private static final Object[] PATH_CLIENT_LAZY_SHAPES = new String[]{"client", "lazy-shapes"};
+    private static final Object[] PATH_CLIENT_CULL_SHAPE_FACES = new String[]{"client", "cull-shape-faces"};
+    private static final Object[] PATH_CLIENT_BAKE_ITEM_MODELS = new String[]{"client", "bake-item-models"};
+    private static final Object[] PATH_CROPS_BATCHED_GROWTH = new String[]{"crops", "batched-growth"};
+    private static final Object[] PATH_CROPS_GROWTH_BUDGET = new String[]{"crops", "growth-budget"};
+    private static final Object[] PATH_CROPS_GROWTH_CATCH_UP = new String[]{"crops", "growth-catch-up"};
+    private static final Object[] PATH_CROPS_OFFLINE_GROWTH = new String[]{"crops", "offline-growth"};
+    private static final Object[] PATH_CROPS_HYDRATION_INDEX = new String[]{"crops", "hydration-index"};
+    private static final Object[] PATH_CROPS_BULK_FERTILIZE_LIMIT = new String[]{"crops", "bulk-fertilize-limit"};
+    private static final Object[] PATH_PACKS_MERGE_DROPS = new String[]{"packs", "merge-drops"};
     private static final Object[] PATH_DEBUG_ALL = new String[]{"debug", "all"};
     private static final Object[] PATH_DEBUG_LANGUAGE = new String[]{"debug", "language"};
     private static final Object[] PATH_DEBUG_MAPPINGS = new String[]{"debug", "mappings"};
@@ -50,6 +60,19 @@ public class Configuration {
     public static int DISTANCE_RENDER_CHEST;
     public static int DISTANCE_RENDER_ITEM_FRAME;
     public static int DISTANCE_RENDER_SIGN;
+    //PACK RENDERING
+    public static boolean LAZY_SHAPES = false;
+    public static boolean CULL_SHAPE_FACES = true;
+    public static boolean BAKE_ITEM_MODELS = true;
+    //CROPS
+    public static boolean CROP_GROWTH_BATCHED = false;
+    public static int CROP_GROWTH_BUDGET = 2048;
+    public static boolean CROP_GROWTH_CATCH_UP = true;
+    public static boolean CROP_GROWTH_OFFLINE = true;
+    public static boolean HYDRATION_INDEX = true;
+    public static int CROP_BULK_FERTILIZE_LIMIT = 64;
+    //DROPS
+    public static boolean MERGE_DROPS = false;
     //FIRST LAUNCH
     public static boolean FIRST_LAUNCH = true;
 
@@ -79,6 +102,26 @@ public class Configuration {
 
         CHAT_NOTIFICATIONS = root.getNode(PATH_CLIENT_CHAT_NOTIFICATIONS).getBoolean(true);
 
+        LAZY_SHAPES = root.getNode(PATH_CLIENT_LAZY_SHAPES).getBoolean(false);
+
+        CULL_SHAPE_FACES = root.getNode(PATH_CLIENT_CULL_SHAPE_FACES).getBoolean(true);
+
+        BAKE_ITEM_MODELS = root.getNode(PATH_CLIENT_BAKE_ITEM_MODELS).getBoolean(true);
+
+        CROP_GROWTH_BATCHED = root.getNode(PATH_CROPS_BATCHED_GROWTH).getBoolean(false);
+
+        CROP_GROWTH_BUDGET = root.getNode(PATH_CROPS_GROWTH_BUDGET).getInt(2048);
+
+        CROP_GROWTH_CATCH_UP = root.getNode(PATH_CROPS_GROWTH_CATCH_UP).getBoolean(true);
+
+        CROP_GROWTH_OFFLINE = root.getNode(PATH_CROPS_OFFLINE_GROWTH).getBoolean(true);
+
+        HYDRATION_INDEX = root.getNode(PATH_CROPS_HYDRATION_INDEX).getBoolean(true);
+
+        CROP_BULK_FERTILIZE_LIMIT = root.getNode(PATH_CROPS_BULK_FERTILIZE_LIMIT).getInt(64);
+
+        MERGE_DROPS = root.getNode(PATH_PACKS_MERGE_DROPS).getBoolean(false);
+
         DEBUG_ALL = root.getNode(PATH_DEBUG_ALL).getBoolean(false);
 
         DEBUG_LANGUAGES = root.getNode(PATH_DEBUG_LANGUAGE).getBoolean(false);
@@ -105,6 +148,26 @@ public class Configuration {
 
         root.getNode(PATH_CLIENT_SIGN_RENDER_DISTANCE).setValue(DISTANCE_RENDER_SIGN);
 
+        root.getNode(PATH_CLIENT_LAZY_SHAPES).setValue(LAZY_SHAPES);
+
+        root.getNode(PATH_CLIENT_CULL_SHAPE_FACES).setValue(CULL_SHAPE_FACES);
+
+        root.getNode(PATH_CLIENT_BAKE_ITEM_MODELS).setValue(BAKE_ITEM_MODELS);
+
+        root.getNode(PATH_CROPS_BATCHED_GROWTH).setValue(CROP_GROWTH_BATCHED);
+
+        root.getNode(PATH_CROPS_GROWTH_BUDGET).setValue(CROP_GROWTH_BUDGET);
+
+        root.getNode(PATH_CROPS_GROWTH_CATCH_UP).setValue(CROP_GROWTH_CATCH_UP);
+
+        root.getNode(PATH_CROPS_OFFLINE_GROWTH).setValue(CROP_GROWTH_OFFLINE);
+
+        root.getNode(PATH_CROPS_HYDRATION_INDEX).setValue(HYDRATION_INDEX);
+
+        root.getNode(PATH_CROPS_BULK_FERTILIZE_LIMIT).setValue(CROP_BULK_FERTILIZE_LIMIT);
+
+        root.getNode(PATH_PACKS_MERGE_DROPS).setValue(MERGE_DROPS);
+
         root.getNode(PATH_DEBUG_ALL).setValue(DEBUG_ALL);
 
         root.getNode(PATH_DEBUG_LANGUAGE).setValue(DEBUG_LANGUAGES);
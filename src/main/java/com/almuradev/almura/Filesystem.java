@@ -26,6 +26,7 @@ public class Filesystem {
     public static final Path CONFIG_GUI_SPRITESHEET_PATH = Paths.get(CONFIG_IMAGES_PATH.toString(), "gui.png");
     public static final Path CONFIG_GUI_LOGO_PATH = Paths.get(CONFIG_IMAGES_PATH.toString(), "almura.png");
     public static final Path CONFIG_MODELS_PATH = Paths.get(CONFIG_VERSION_PATH.toString(), "models");
+    public static final Path CONFIG_PACK_CACHE_PATH = Paths.get(CONFIG_VERSION_PATH.toString(), "packs.cache");
     public static final Path CONFIG_ACCESSORIES_PATH = Paths.get(CONFIG_IMAGES_PATH.toString(), "accessories");
 
     public static DirectoryStream.Filter<Path> FILTER_MODEL_FILES_ONLY = new DirectoryStream.Filter<Path>() {
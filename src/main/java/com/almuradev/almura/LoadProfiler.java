@@ -0,0 +1,186 @@
+/**
+ * This file is part of Almura, All Rights Reserved.
+ *
+ * Copyright (c) 2014 AlmuraDev <http://github.com/AlmuraDev/>
+ */
+package com.almuradev.almura;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records wall time, allocation and object counts of the load stages, per pack and per file. {@link #report()} writes them to
+ * load-profile.csv in the config folder and logs the slowest files.
+ */
+public class LoadProfiler {
+
+    public static final String STAGE_LOAD_ALL_CONTENT = "loadAllContent";
+    public static final String STAGE_PARSE = "parse";
+    public static final String STAGE_CREATE = "create";
+    public static final String STAGE_ON_CREATE = "onCreate";
+    public static final String STAGE_ON_POST_CREATE = "onPostCreate";
+    public static final String STAGE_ON_LOAD_FINISHED = "onLoadFinished";
+    public static final String STAGE_GAME_OBJECT_MAPPER = "GameObjectMapper.load";
+    public static final String STAGE_ENTITY_MAPPER = "EntityMapper.load";
+    public static final String STAGE_LANGUAGE_REGISTRY = "LanguageRegistry.injectIntoForge";
+
+    private static final Path REPORT_PATH = Paths.get(Filesystem.CONFIG_PATH.toString(), "load-profile.csv");
+    private static final int SLOWEST_FILES_LOGGED = 10;
+    private static final Queue<Record> RECORDS = new ConcurrentLinkedQueue<>();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean ALLOCATION_SUPPORTED;
+
+    static {
+        boolean supported = false;
+        try {
+            supported = THREADS instanceof com.sun.management.ThreadMXBean
+                    && ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemorySupported()
+                    && ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemoryEnabled();
+        } catch (Throwable ignored) {
+        }
+        ALLOCATION_SUPPORTED = supported;
+    }
+
+    /**
+     * Starts timing a section. Pack and file are empty for stage wide sections.
+     *
+     * @param stage The stage
+     * @param pack The pack name
+     * @param file The file name
+     * @return The section, call {@link Section#end(int)} when done
+     */
+    public static Section begin(String stage, String pack, String file) {
+        return new Section(stage, pack, file);
+    }
+
+    public static Section begin(String stage) {
+        return begin(stage, "", "");
+    }
+
+    /**
+     * Writes the report and logs the slowest files, then drops every record.
+     */
+    public static void report() {
+        final List<Record> records = Lists.newArrayList(RECORDS);
+        RECORDS.clear();
+        if (records.isEmpty()) {
+            return;
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(REPORT_PATH, StandardCharsets.UTF_8)) {
+            writer.write("stage,pack,file,wall_ms,allocated_kb,objects");
+            writer.newLine();
+            for (Record record : records) {
+                writer.write(quote(record.stage) + "," + quote(record.pack) + "," + quote(record.file) + ","
+                        + String.format(Locale.ENGLISH, "%.3f", record.nanos / 1000000.0) + ","
+                        + (record.allocated < 0 ? "" : record.allocated / 1024) + "," + record.objects);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            Almura.LOGGER.warn("Failed to write load profile to [" + REPORT_PATH + "].", e);
+        }
+
+        // Sum every stage a file went through
+        final Map<String, long[]> byFile = Maps.newHashMap();
+        for (Record record : records) {
+            if (record.file.isEmpty()) {
+                if (record.pack.isEmpty()) {
+                    Almura.LOGGER.info("Load stage [" + record.stage + "] took [" + TimeUnit.NANOSECONDS.toMillis(record.nanos) + "ms].");
+                }
+                continue;
+            }
+            final String key = record.pack + "/" + record.file;
+            long[] totals = byFile.get(key);
+            if (totals == null) {
+                totals = new long[1];
+                byFile.put(key, totals);
+            }
+            totals[0] += record.nanos;
+        }
+
+        final List<Map.Entry<String, long[]>> slowest = Lists.newArrayList(byFile.entrySet());
+        Collections.sort(slowest, new Comparator<Map.Entry<String, long[]>>() {
+            @Override
+            public int compare(Map.Entry<String, long[]> o1, Map.Entry<String, long[]> o2) {
+                return Long.compare(o2.getValue()[0], o1.getValue()[0]);
+            }
+        });
+        for (int i = 0; i < Math.min(SLOWEST_FILES_LOGGED, slowest.size()); i++) {
+            Almura.LOGGER.info("Slow pack file #" + (i + 1) + " [" + slowest.get(i).getKey() + "] took ["
+                    + String.format(Locale.ENGLISH, "%.2f", slowest.get(i).getValue()[0] / 1000000.0) + "ms].");
+        }
+        Almura.LOGGER.info("Full load profile written to [" + REPORT_PATH + "].");
+    }
+
+    private static long allocatedBytes() {
+        if (!ALLOCATION_SUPPORTED) {
+            return -1;
+        }
+        return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Quotes a CSV field, doubling any quote within it.
+     */
+    private static String quote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    public static final class Section {
+
+        private final String stage, pack, file;
+        private final long startNanos, startAllocated;
+
+        private Section(String stage, String pack, String file) {
+            this.stage = stage;
+            this.pack = pack;
+            this.file = file;
+            this.startAllocated = allocatedBytes();
+            this.startNanos = System.nanoTime();
+        }
+
+        /**
+         * Ends the section. Must be called on the thread that began it.
+         *
+         * @param objects The amount of objects created within it
+         */
+        public void end(int objects) {
+            final long nanos = System.nanoTime() - startNanos;
+            final long allocated = startAllocated < 0 ? -1 : allocatedBytes() - startAllocated;
+            RECORDS.add(new Record(stage, pack, file, nanos, allocated, objects));
+        }
+    }
+
+    private static final class Record {
+
+        private final String stage, pack, file;
+        private final long nanos, allocated;
+        private final int objects;
+
+        private Record(String stage, String pack, String file, long nanos, long allocated, int objects) {
+            this.stage = stage;
+            this.pack = pack;
+            this.file = file;
+            this.nanos = nanos;
+            this.allocated = allocated;
+            this.objects = objects;
+        }
+    }
+}
@@ -22,6 +22,8 @@ import com.almuradev.almura.pack.container.PackContainerBlock;
 import com.almuradev.almura.pack.crop.PackCrops;
 import com.almuradev.almura.pack.renderer.BlockRenderer;
 import com.almuradev.almura.pack.renderer.ItemRenderer;
+import com.almuradev.almura.pack.renderer.PackDisplayLists;
+import com.almuradev.almura.pack.renderer.PackTextureCache;
 import com.almuradev.almura.server.network.play.bukkit.B00PlayerDisplayName;
 import com.almuradev.almura.server.network.play.bukkit.B01PlayerCurrency;
 import com.almuradev.almura.server.network.play.bukkit.B02AdditionalWorldInformation;
@@ -32,6 +34,9 @@ import com.almuradev.almurasdk.lang.Languages;
 import com.google.common.base.Optional;
 import cpw.mods.fml.client.registry.ClientRegistry;
 import cpw.mods.fml.common.FMLCommonHandler;
+import cpw.mods.fml.common.Loader;
+import cpw.mods.fml.common.LoaderState;
+import cpw.mods.fml.common.event.FMLInitializationEvent;
 import cpw.mods.fml.common.event.FMLPreInitializationEvent;
 import cpw.mods.fml.common.eventhandler.EventPriority;
 import cpw.mods.fml.common.eventhandler.SubscribeEvent;
@@ -103,6 +108,13 @@ public class ClientProxy extends CommonProxy {
         MinecraftForge.EVENT_BUS.register(this);
     }
 
+    @Override
+    public void onInitialization(FMLInitializationEvent event) {
+        super.onInitialization(event);
+        // Icons are registered before TextureStitchEvent.Pre fires, start decoding now so clipped icons get their dimensions from the cache
+        PackTextureCache.preload();
+    }
+
     @SubscribeEvent
     public void onGuiOpenEvent(GuiOpenEvent event) {
         if (event.gui instanceof GuiMainMenu) {
@@ -143,6 +155,17 @@ public class ClientProxy extends CommonProxy {
         Almura.LOGGER
                 .info("This computer can handle a maximum stitched texture size of width [" + Minecraft.getGLMaximumTextureSize() + "] and length ["
                         + Minecraft.getGLMaximumTextureSize() + "].");
+        //Almura can run last
+        if (Loader.instance().hasReachedState(LoaderState.AVAILABLE)) {
+            PackTextureCache.preload(event.map.getTextureType());
+        }
+    }
+
+    @SubscribeEvent
+    public void onTextureStitchEventPost(TextureStitchEvent.Post event) {
+        // Baked lists hold the icons of the previous stitch
+        PackDisplayLists.invalidate();
+        PackTextureCache.release(event.map.getTextureType());
     }
 
     @SubscribeEvent(priority = EventPriority.HIGHEST)
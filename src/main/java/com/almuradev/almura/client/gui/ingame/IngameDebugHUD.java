@@ -7,6 +7,7 @@ package com.almuradev.almura.client.gui.ingame;
 
 import com.almuradev.almura.Almura;
 import com.almuradev.almura.client.FontRenderOptionsConstants;
+import com.almuradev.almura.pack.renderer.BlockRenderer;
 import com.almuradev.almurasdk.client.gui.SimpleGui;
 import com.almuradev.almurasdk.util.Colors;
 import net.malisis.core.client.gui.Anchor;
@@ -26,7 +27,8 @@ public class IngameDebugHUD extends SimpleGui {
 
     public static final Runtime RUNTIME = Runtime.getRuntime();
 
-    private UILabel fps, memoryDebug, memoryAllocated, xLoc, yLoc, zLoc, directionLoc, biomeName, blockLight, skyLight, rawLight;
+    private UILabel fps, memoryDebug, memoryAllocated, xLoc, yLoc, zLoc, directionLoc, biomeName, blockLight, skyLight, rawLight,
+            culledFaces;
     private Chunk chunk;
 
     @Override
@@ -104,13 +106,19 @@ public class IngameDebugHUD extends SimpleGui {
         rawLight = new UILabel(this);
         rawLight.setPosition(x, 140).setFontRenderOptions(valuesFro);
 
+        UILabel renderingLabel = new UILabel(this, "Rendering :");
+        renderingLabel.setPosition(5, 150).setFontRenderOptions(labelsFro);
+
+        culledFaces = new UILabel(this);
+        culledFaces.setPosition(x, 150).setFontRenderOptions(valuesFro);
+
         UILabel version = new UILabel(this, Colors.GREEN + Almura.GUI_VERSION);
         version.setPosition(0, 0, Anchor.CENTER | Anchor.BOTTOM);
         version.setFontRenderOptions(FontRenderOptionsConstants.FRO_SCALE_070);
 
         debugPanel.add(debugTitle, fpsLabel, fps, memoryLabel, memoryDebug, memoryAllocated, directionLabel, xLoc, yLoc, zLoc, facingLabel,
                 directionLoc,
-                biomeLabel, biomeName, lightLabel, blockLight, skyLight, rawLight, version);
+                biomeLabel, biomeName, lightLabel, blockLight, skyLight, rawLight, renderingLabel, culledFaces, version);
 
         addToScreen(debugPanel);
     }
@@ -139,6 +147,8 @@ public class IngameDebugHUD extends SimpleGui {
         int yaw = MathHelper.floor_double(p.rotationYawHead * 4.0F / 360.0F + 0.5D) & 3;
         directionLoc.setText(WordUtils.capitalizeFully(Direction.directions[yaw]));
 
+        culledFaces.setText("- culled faces : " + BlockRenderer.getCulledFacesLastRebuild() + " last rebuild");
+
         if (chunk == null || p.posX != p.prevPosX || p.posZ != p.prevPosZ) {
             chunk = p.worldObj.getChunkFromChunkCoords(p.chunkCoordX, p.chunkCoordZ);
             int x = (int) p.posX & 15;
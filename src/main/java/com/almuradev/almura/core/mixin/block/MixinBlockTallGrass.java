@@ -7,7 +7,6 @@ package com.almuradev.almura.core.mixin.block;
 
 import com.almuradev.almura.pack.crop.PackSeeds;
 import com.almuradev.almura.pack.node.GrassNode;
-import com.almuradev.almura.pack.node.property.RangeProperty;
 import com.google.common.collect.Lists;
 import net.minecraft.block.BlockBush;
 import net.minecraft.block.BlockTallGrass;
@@ -31,9 +30,9 @@ public abstract class MixinBlockTallGrass extends BlockBush {
         if (seedStack.getItem() instanceof PackSeeds) {
             final GrassNode grassNode = ((PackSeeds) seedStack.getItem()).getNode(GrassNode.class);
             if (grassNode != null) {
-                final double chance = grassNode.getChanceProperty().getValueWithinRange();
-                if (RangeProperty.RANDOM.nextDouble() <= (chance / 100)) {
-                    seedStack.stackSize = grassNode.getValue().getAmountProperty().getValueWithinRange();
+                final double chance = grassNode.getChanceProperty().sampleDouble(world.rand);
+                if (world.rand.nextDouble() <= (chance / 100)) {
+                    seedStack.stackSize = grassNode.getValue().getAmountProperty().sampleInt(world.rand);
                     final ArrayList<ItemStack> ret = Lists.newArrayList();
                     ret.add(seedStack);
                     ci.setReturnValue(ret);
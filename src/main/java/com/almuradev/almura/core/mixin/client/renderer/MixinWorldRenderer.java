@@ -0,0 +1,28 @@
+/**
+ * This file is part of Almura, All Rights Reserved.
+ *
+ * Copyright (c) 2014 AlmuraDev <http://github.com/AlmuraDev/>
+ */
+package com.almuradev.almura.core.mixin.client.renderer;
+
+import com.almuradev.almura.pack.renderer.BlockRenderer;
+import net.minecraft.client.renderer.WorldRenderer;
+import net.minecraft.entity.EntityLivingBase;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(WorldRenderer.class)
+public abstract class MixinWorldRenderer {
+
+    @Inject(method = "updateRenderer", at = @At("HEAD"))
+    public void onUpdateRendererStart(EntityLivingBase entity, CallbackInfo ci) {
+        BlockRenderer.onRebuildStarted();
+    }
+
+    @Inject(method = "updateRenderer", at = @At("RETURN"))
+    public void onUpdateRendererEnd(EntityLivingBase entity, CallbackInfo ci) {
+        BlockRenderer.onRebuildFinished();
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * This file is part of Almura, All Rights Reserved.
+ *
+ * Copyright (c) 2014 AlmuraDev <http://github.com/AlmuraDev/>
+ */
+package com.almuradev.almura.core.mixin.world.chunk;
+
+import com.almuradev.almura.pack.crop.CropFieldIndex;
+import com.almuradev.almura.pack.crop.HydrationIndex;
+import net.minecraft.block.Block;
+import net.minecraft.world.chunk.Chunk;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(value = Chunk.class)
+public abstract class MixinChunk {
+
+    @Inject(method = "func_150807_a", at = @At("RETURN"))
+    public void onSetBlock(int x, int y, int z, Block block, int metadata, CallbackInfoReturnable<Boolean> ci) {
+        if (ci.getReturnValue()) {
+            CropFieldIndex.onBlockChanged((Chunk) (Object) this, x, y, z, block, metadata);
+            HydrationIndex.onBlockChanged((Chunk) (Object) this, x, y, z, block);
+        }
+    }
+
+    @Inject(method = "setBlockMetadata", at = @At("RETURN"))
+    public void onSetBlockMetadata(int x, int y, int z, int metadata, CallbackInfoReturnable<Boolean> ci) {
+        if (ci.getReturnValue()) {
+            final Chunk chunk = (Chunk) (Object) this;
+            CropFieldIndex.onBlockChanged(chunk, x, y, z, chunk.getBlock(x, y, z), metadata);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * This file is part of Almura, All Rights Reserved.
+ *
+ * Copyright (c) 2014 AlmuraDev <http://github.com/AlmuraDev/>
+ */
+package com.almuradev.almura.pack;
+
+import com.almuradev.almura.Configuration;
+import com.almuradev.almura.pack.mapper.GameObject;
+import com.almuradev.almura.pack.node.BreakNode;
+import com.almuradev.almura.pack.node.ToolsNode;
+import com.almuradev.almura.pack.node.property.DropProperty;
+import com.almuradev.almura.pack.node.property.FloatRange;
+import com.almuradev.almura.pack.node.property.IntRange;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import net.minecraft.block.Block;
+import net.minecraft.enchantment.EnchantmentHelper;
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.world.World;
+import net.minecraftforge.event.ForgeEventFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * The drops of a {@link BreakNode}, compiled when the node is created. Tools are resolved through the node's index of the held item and
+ * every range is kept as primitives, so a break rolls its drops without scanning the tools or boxing.
+ */
+public class DropTable {
+
+    private final BreakNode breakNode;
+    private final Map<ToolsNode, Entry> entries = Maps.newIdentityHashMap();
+
+    public DropTable(BreakNode breakNode) {
+        this.breakNode = breakNode;
+        for (ToolsNode toolsNode : breakNode.getValue()) {
+            entries.put(toolsNode, new Entry(toolsNode));
+        }
+    }
+
+    /**
+     * Gets the drops for breaking with the held item, falling back to those without a tool.
+     *
+     * @param held The held item or null
+     * @return The entry or null if breaking is disabled or nothing matches
+     */
+    public Entry getEntry(ItemStack held) {
+        if (!breakNode.isEnabled()) {
+            return null;
+        }
+        final ToolsNode toolsNode = breakNode.getTool(held);
+        return toolsNode == null ? null : entries.get(toolsNode);
+    }
+
+    /**
+     * Gets the drops without a tool, regardless of breaking being enabled.
+     *
+     * @return The entry or null if there are none
+     */
+    public Entry getOffHand() {
+        final ToolsNode toolsNode = breakNode.getOffHand();
+        return toolsNode == null ? null : entries.get(toolsNode);
+    }
+
+    /**
+     * Harvests the block for the player, the drops going through the harvest event like vanilla ones.
+     *
+     * @param world The world
+     * @param block The block
+     * @param x The x
+     * @param y The y
+     * @param z The z
+     * @param metadata The metadata
+     * @param player The player, also the block's harvester for the duration of the call
+     * @param captured The list the block captures drops into or null to spawn them
+     */
+    public void harvest(World world, Block block, int x, int y, int z, int metadata, EntityPlayer player, List<ItemStack> captured) {
+        final Entry entry = getEntry(player.getHeldItem());
+        if (entry == null) {
+            return;
+        }
+
+        final Random random = world.rand;
+        player.addExhaustion(entry.rollExhaustion(random));
+        final ArrayList<ItemStack> drops = entry.rollDrops(random);
+        if (!world.isRemote && !world.restoringBlockSnapshots) {
+            final int fortune = EnchantmentHelper.getFortuneModifier(player);
+            final float modchance = ForgeEventFactory.fireBlockHarvesting(drops, world, block, x, y, z, metadata, fortune, 1.0f, false, player);
+            for (ItemStack is : drops) {
+                if (random.nextFloat() <= modchance && world.getGameRules().getGameRuleBooleanValue("doTileDrops")) {
+                    if (captured != null) {
+                        captured.add(is);
+                        continue;
+                    }
+                    spawn(world, x, y, z, is);
+                }
+            }
+        }
+    }
+
+    /**
+     * Spawns the stack at the block the way vanilla drops it.
+     *
+     * @param world The world
+     * @param x The x
+     * @param y The y
+     * @param z The z
+     * @param stack The stack
+     */
+    public static void spawn(World world, int x, int y, int z, ItemStack stack) {
+        final float f = 0.7F;
+        final double d0 = (double) (world.rand.nextFloat() * f) + (double) (1.0F - f) * 0.5D;
+        final double d1 = (double) (world.rand.nextFloat() * f) + (double) (1.0F - f) * 0.5D;
+        final double d2 = (double) (world.rand.nextFloat() * f) + (double) (1.0F - f) * 0.5D;
+        final EntityItem item = new EntityItem(world, (double) x + d0, (double) y + d1, (double) z + d2, stack);
+        item.delayBeforeCanPickup = 10;
+        world.spawnEntityInWorld(item);
+    }
+
+    public static final class Entry {
+
+        private final FloatRange exhaustion;
+        private final Block[] blocks;
+        private final Item[] items;
+        private final int[] data;
+        private final IntRange[] amounts;
+        private final boolean[] bonuses;
+        private final IntRange[] bonusAmounts;
+
+        private Entry(ToolsNode toolsNode) {
+            exhaustion = toolsNode.getExhaustionRange().asFloatRange();
+            final Set<DropProperty> drops = toolsNode.getValue().getValue();
+            blocks = new Block[drops.size()];
+            items = new Item[drops.size()];
+            data = new int[drops.size()];
+            amounts = new IntRange[drops.size()];
+            bonuses = new boolean[drops.size()];
+            bonusAmounts = new IntRange[drops.size()];
+            int i = 0;
+            for (DropProperty drop : drops) {
+                final GameObject source = drop.getSource();
+                if (source.isBlock()) {
+                    blocks[i] = (Block) source.minecraftObject;
+                } else {
+                    items[i] = (Item) source.minecraftObject;
+                }
+                data[i] = drop.getData();
+                amounts[i] = drop.getAmountProperty().asIntRange();
+                bonuses[i] = drop.getBonusProperty().getSource();
+                bonusAmounts[i] = drop.getBonusProperty().asIntRange();
+                i++;
+            }
+        }
+
+        public float rollExhaustion(Random random) {
+            return exhaustion.sampleFloat(random);
+        }
+
+        /**
+         * Rolls the drops. Stacks of the same item and data are merged when {@link Configuration#MERGE_DROPS} is enabled.
+         *
+         * @param random The random
+         * @return The drops
+         */
+        public ArrayList<ItemStack> rollDrops(Random random) {
+            final ArrayList<ItemStack> drops = Lists.newArrayListWithCapacity(data.length);
+            for (int i = 0; i < data.length; i++) {
+                int amount = amounts[i].sampleInt(random);
+                // The bonus amount range doubles as the chance, out of 100, as it always has
+                if (bonuses[i] && random.nextDouble() <= bonusAmounts[i].sampleInt(random) / 100d) {
+                    amount += bonusAmounts[i].sampleInt(random);
+                }
+                if (Configuration.MERGE_DROPS && merge(drops, i, amount)) {
+                    continue;
+                }
+                drops.add(blocks[i] != null ? new ItemStack(blocks[i], amount, data[i]) : new ItemStack(items[i], amount, data[i]));
+            }
+            return drops;
+        }
+
+        private boolean merge(List<ItemStack> drops, int index, int amount) {
+            final Item item = blocks[index] != null ? Item.getItemFromBlock(blocks[index]) : items[index];
+            for (ItemStack stack : drops) {
+                if (stack.getItem() == item && stack.getMetadata() == data[index] && stack.stackSize + amount <= stack.getMaxStackSize()) {
+                    stack.stackSize += amount;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
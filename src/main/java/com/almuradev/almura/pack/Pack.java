@@ -8,27 +8,35 @@ package com.almuradev.almura.pack;
 import com.almuradev.almura.Almura;
 import com.almuradev.almura.Configuration;
 import com.almuradev.almura.Filesystem;
+import com.almuradev.almura.LoadProfiler;
 import com.almuradev.almura.pack.model.PackModelContainer;
 import com.almuradev.almurasdk.FileSystem;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import net.minecraft.block.Block;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemFood;
 import ninja.leaping.configurate.ConfigurationNode;
-import ninja.leaping.configurate.yaml.YAMLConfigurationLoader;
 
 import java.io.IOException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 public class Pack {
 
     private static final List<PackModelContainer> MODEL_CONTAINERS = Lists.newArrayList();
+    private static final Map<String, PackModelContainer> MODEL_CONTAINERS_BY_NAME = Maps.newHashMap();
+    private static final Set<String> REFERENCED_MODELS = Sets.newHashSet();
+    private static final Set<String> MISSING_MODELS = Sets.newTreeSet(String.CASE_INSENSITIVE_ORDER);
     private static final Map<String, Pack> PACKS = new HashMap<>();
     protected final List<Block> blocks = Lists.newArrayList();
     protected final List<Item> items = Lists.newArrayList();
@@ -42,73 +50,153 @@ public class Pack {
         return Collections.unmodifiableList(MODEL_CONTAINERS);
     }
 
+    /**
+     * Gets the model container registered under the name, ignoring case. Lookups are tracked for {@link #logModelUsage()}.
+     *
+     * @param name The model name, without the .shape extension
+     * @return The container or null if none was loaded under the name
+     */
+    public static PackModelContainer getModelContainer(String name) {
+        if (name.isEmpty()) {
+            return null;
+        }
+        final String key = name.toLowerCase(Locale.ENGLISH);
+        final PackModelContainer modelContainer = MODEL_CONTAINERS_BY_NAME.get(key);
+        if (modelContainer == null) {
+            MISSING_MODELS.add(name);
+        } else {
+            REFERENCED_MODELS.add(key);
+        }
+        return modelContainer;
+    }
+
+    /**
+     * Logs the models no pack object referenced and the model names no model satisfied, then stops tracking lookups.
+     */
+    public static void logModelUsage() {
+        final Set<String> unused = Sets.newTreeSet();
+        for (PackModelContainer modelContainer : MODEL_CONTAINERS) {
+            if (!REFERENCED_MODELS.contains(modelContainer.getIdentifier().toLowerCase(Locale.ENGLISH))) {
+                unused.add(modelContainer.getIdentifier());
+            }
+        }
+
+        if (!unused.isEmpty()) {
+            Almura.LOGGER.info("[" + unused.size() + "] models in [" + Filesystem.CONFIG_MODELS_PATH + "] are not used by any pack: " + unused);
+        }
+        if (!MISSING_MODELS.isEmpty()) {
+            Almura.LOGGER.warn("[" + MISSING_MODELS.size() + "] models are used by packs but were not found in [" + Filesystem.CONFIG_MODELS_PATH
+                    + "]: " + MISSING_MODELS);
+        }
+
+        REFERENCED_MODELS.clear();
+        MISSING_MODELS.clear();
+    }
+
     public static Map<String, Pack> getPacks() {
         return Collections.unmodifiableMap(PACKS);
     }
 
     public static void loadAllContent() {
+        final LoadProfiler.Section section = LoadProfiler.begin(LoadProfiler.STAGE_LOAD_ALL_CONTENT);
+
+        final List<Path> modelPaths = Lists.newArrayList();
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(Filesystem.CONFIG_MODELS_PATH, Filesystem.FILTER_MODEL_FILES_ONLY)) {
             for (Path path : stream) {
-                try {
-                    String name = path.getFileName().toString();
-                    boolean shape = name.endsWith(".shape");
-                    name = name.split(".shape")[0];
-
-                    final PackModelContainer modelContainer = loadModelContainer(name, path, shape);
-                    MODEL_CONTAINERS.add(modelContainer);
-                } catch (IOException e) {
-                    Almura.LOGGER.error("Failed to load model container [" + path + "] in [" + Filesystem.CONFIG_MODELS_PATH + "].", e);
-                }
+                modelPaths.add(path);
             }
         } catch (IOException e) {
             throw new RuntimeException("Failed filtering model files from [" + Filesystem.CONFIG_MODELS_PATH + "].", e);
         }
 
+        final List<Path> packRoots = Lists.newArrayList();
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(Filesystem.CONFIG_YML_PATH, FileSystem.FILTER_DIRECTORIES_ONLY)) {
             for (Path path : stream) {
-                final Pack pack = loadPack(path);
-                PACKS.put(pack.getName(), pack);
+                packRoots.add(path);
             }
         } catch (IOException e) {
             throw new RuntimeException("Failed filtering folders from [" + Filesystem.CONFIG_YML_PATH + "].", e);
         }
 
+        final List<Path> paths = Lists.newArrayList(modelPaths);
+        final int[] packOffsets = new int[packRoots.size() + 1];
+        for (int i = 0; i < packRoots.size(); i++) {
+            packOffsets[i] = paths.size();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(packRoots.get(i), FileSystem.FILTER_YAML_FILES_ONLY)) {
+                for (Path path : stream) {
+                    paths.add(path);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed filtering files from [" + Filesystem.CONFIG_YML_PATH + "].", e);
+            }
+        }
+        packOffsets[packRoots.size()] = paths.size();
+
+        // Parsing is spread across cores, everything after this point runs on this thread and in directory order
+        PackCache.open();
+        final PackParser.ParsedDocument[] documents = PackParser.parse(paths);
+
+        for (int i = 0; i < modelPaths.size(); i++) {
+            final Path path = modelPaths.get(i);
+            try {
+                String name = path.getFileName().toString();
+                boolean shape = name.endsWith(".shape");
+                name = name.split(".shape")[0];
+
+                final PackModelContainer modelContainer = loadModelContainer(name, documents[i].getReader(), shape);
+                MODEL_CONTAINERS.add(modelContainer);
+                MODEL_CONTAINERS_BY_NAME.put(name.toLowerCase(Locale.ENGLISH), modelContainer);
+            } catch (IOException e) {
+                Almura.LOGGER.error("Failed to load model container [" + path + "] in [" + Filesystem.CONFIG_MODELS_PATH + "].", e);
+            }
+        }
+
+        for (int i = 0; i < packRoots.size(); i++) {
+            final Pack pack = loadPack(packRoots.get(i), Arrays.asList(documents).subList(packOffsets[i], packOffsets[i + 1]));
+            PACKS.put(pack.getName(), pack);
+        }
+
         for (Pack pack : PACKS.values()) {
             Almura.PROXY.onCreate(pack);
         }
-    }
 
-    public static PackModelContainer loadModelContainer(String name, Path root, boolean shape) throws IOException {
-        final ConfigurationNode reader = YAMLConfigurationLoader.builder().setFile(root.toFile()).build().load();
+        PackCache.save(documents);
+        PackReloader.record(documents);
+        section.end(documents.length);
+    }
 
+    public static PackModelContainer loadModelContainer(String name, ConfigurationNode reader, boolean shape) throws IOException {
         final PackModelContainer modelContainer = PackCreator.createModelContainerFromReader(name, reader);
         if (Configuration.IS_CLIENT && shape) {
-            PackCreator.loadShapeIntoModelContainer(modelContainer, name, reader);
+            if (Configuration.LAZY_SHAPES) {
+                // Decide emptiness now, the blocks using the container need to know if it has a shape before it is built
+                if (PackCreator.hasShapeFaces(reader)) {
+                    modelContainer.setShapeReader(reader);
+                } else {
+                    Almura.LOGGER.error("Model [" + name + "] has no faces and therefore will not be loaded.");
+                }
+            } else {
+                PackCreator.loadShapeIntoModelContainer(modelContainer, name, reader);
+            }
         }
         return modelContainer;
     }
 
-    public static Pack loadPack(Path root) {
+    public static Pack loadPack(Path root, List<PackParser.ParsedDocument> documents) {
         final String smpName = root.getName(root.getNameCount() - 1).toString();
         final Pack pack = new Pack(smpName);
+        final LoadProfiler.Section packSection = LoadProfiler.begin(LoadProfiler.STAGE_CREATE, smpName, "");
 
-        List<Path> streamed = Lists.newArrayList();
-
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(root, FileSystem.FILTER_YAML_FILES_ONLY)) {
-            for (Path path : stream) {
-                streamed.add(path);
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Failed filtering files from [" + Filesystem.CONFIG_YML_PATH + "].", e);
-        }
-
-        for (Path path : streamed) {
+        for (PackParser.ParsedDocument document : documents) {
+            final Path path = document.getPath();
+            final LoadProfiler.Section fileSection = LoadProfiler.begin(LoadProfiler.STAGE_CREATE, smpName, path.getFileName().toString());
             try {
-                final ConfigurationNode reader = YAMLConfigurationLoader.builder().setFile(path.toFile()).build().load();
+                final ConfigurationNode reader = document.getReader();
 
                 final String type = reader.getNode(PackKeys.TYPE.getKey()).getString(PackKeys.TYPE.getDefaultValue()).toUpperCase();
 
                 final String name = path.getFileName().toString().split(".yml")[0];
+                PackDocumentCache.put(pack, name, reader);
 
                 switch (type) {
                     case "ITEM":
@@ -143,7 +231,9 @@ public class Pack {
                     Almura.LOGGER.error("Failed to load [" + path + "] for pack [" + pack.getName() + "].");
                 }
             }
+            fileSection.end(1);
         }
+        packSection.end(pack.blocks.size() + pack.items.size());
         return pack;
     }
 
@@ -0,0 +1,341 @@
+/**
+ * This file is part of Almura, All Rights Reserved.
+ *
+ * Copyright (c) 2014 AlmuraDev <http://github.com/AlmuraDev/>
+ */
+package com.almuradev.almura.pack;
+
+import com.almuradev.almura.Almura;
+import com.almuradev.almura.Configuration;
+import com.almuradev.almura.Filesystem;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import ninja.leaping.configurate.ConfigurationNode;
+import ninja.leaping.configurate.SimpleConfigurationNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled form of the pack and model files. After a load the parsed documents are written to a single binary file, on the next start
+ * any file whose modified time and size still match is read back from a memory mapped copy of it instead of going through YAML.
+ */
+public class PackCache {
+
+    private static final int MAGIC = 0x414C4D43;
+    private static final int FORMAT = 1;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_MAP = 1;
+    private static final byte TAG_LIST = 2;
+    private static final byte TAG_STRING = 3;
+    private static final byte TAG_BOOLEAN = 4;
+    private static final byte TAG_INTEGER = 5;
+    private static final byte TAG_LONG = 6;
+    private static final byte TAG_FLOAT = 7;
+    private static final byte TAG_DOUBLE = 8;
+    private static final byte TAG_BIG_INTEGER = 9;
+    private static final byte TAG_BIG_DECIMAL = 10;
+    private static final byte TAG_DATE = 11;
+
+    private static final Map<String, Entry> ENTRIES = Maps.newHashMap();
+    private static MappedByteBuffer buffer;
+
+    /**
+     * Maps the cache file and reads its table of entries. Does nothing if there is no cache or it was written by another version.
+     */
+    public static void open() {
+        if (Files.notExists(Filesystem.CONFIG_PACK_CACHE_PATH)) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(Filesystem.CONFIG_PACK_CACHE_PATH, StandardOpenOption.READ)) {
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.getInt() != MAGIC || mapped.getInt() != FORMAT || !readString(mapped).equals(Almura.PACK_VERSION)) {
+                return;
+            }
+
+            final int count = mapped.getInt();
+            for (int i = 0; i < count; i++) {
+                final String path = readString(mapped);
+                ENTRIES.put(path, new Entry(mapped.getLong(), mapped.getLong(), mapped.getInt(), mapped.getInt()));
+            }
+            buffer = mapped;
+        } catch (IOException | RuntimeException e) {
+            ENTRIES.clear();
+            if (Configuration.DEBUG_ALL || Configuration.DEBUG_PACKS) {
+                Almura.LOGGER.error("Failed to read pack cache [" + Filesystem.CONFIG_PACK_CACHE_PATH + "]. Packs will be parsed from YAML.", e);
+            } else {
+                Almura.LOGGER.warn("Failed to read pack cache [" + Filesystem.CONFIG_PACK_CACHE_PATH + "]. Packs will be parsed from YAML.");
+            }
+        }
+    }
+
+    /**
+     * Gets the compiled document for a file. Safe to call from multiple threads once {@link #open()} has returned.
+     *
+     * @param path The file
+     * @param modified The current modified time of the file, in milliseconds
+     * @param size The current size of the file
+     * @return The document or null if the file is not cached or changed since it was
+     */
+    public static ConfigurationNode get(Path path, long modified, long size) {
+        final Entry entry = ENTRIES.get(path.toString());
+        if (buffer == null || entry == null || entry.length < 0 || entry.modified != modified || entry.size != size) {
+            return null;
+        }
+
+        final ByteBuffer data = buffer.duplicate();
+        data.position(entry.offset);
+        data.limit(entry.offset + entry.length);
+        try {
+            final ConfigurationNode node = SimpleConfigurationNode.root();
+            node.setValue(readValue(data));
+            return node;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes every successfully parsed document to the cache file, replacing it, unless all of them were already read from it. Documents
+     * that can't be cached are recorded as skipped so they don't cause a rewrite on every start.
+     *
+     * @param documents The documents of the load
+     */
+    public static void save(PackParser.ParsedDocument[] documents) {
+        boolean changed = documents.length != ENTRIES.size();
+        for (PackParser.ParsedDocument document : documents) {
+            changed |= !document.isCached() && !isSkipped(document);
+        }
+
+        close();
+        if (!changed) {
+            return;
+        }
+
+        final List<String> paths = Lists.newArrayList();
+        final List<PackParser.ParsedDocument> written = Lists.newArrayList();
+        final List<int[]> ranges = Lists.newArrayList();
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        final ByteArrayOutputStream documentData = new ByteArrayOutputStream();
+        final DataOutputStream documentOut = new DataOutputStream(documentData);
+        try {
+            for (PackParser.ParsedDocument document : documents) {
+                documentData.reset();
+                paths.add(document.getPath().toString());
+                written.add(document);
+                try {
+                    writeNode(documentOut, document.getReader());
+                } catch (IOException ignored) {
+                    // Failed to parse or holds a value the cache can't represent, leave it to YAML until the file changes
+                    ranges.add(new int[]{-1, -1});
+                    continue;
+                }
+                ranges.add(new int[]{data.size(), documentData.size()});
+                documentData.writeTo(data);
+            }
+
+            final ByteArrayOutputStream header = new ByteArrayOutputStream();
+            final DataOutputStream headerOut = new DataOutputStream(header);
+            headerOut.writeInt(MAGIC);
+            headerOut.writeInt(FORMAT);
+            writeString(headerOut, Almura.PACK_VERSION);
+            headerOut.writeInt(written.size());
+            int tableSize = 0;
+            for (String path : paths) {
+                tableSize += 4 + path.getBytes(StandardCharsets.UTF_8).length + 8 + 8 + 4 + 4;
+            }
+            final int dataStart = headerOut.size() + tableSize;
+            for (int i = 0; i < written.size(); i++) {
+                writeString(headerOut, paths.get(i));
+                headerOut.writeLong(written.get(i).getModified());
+                headerOut.writeLong(written.get(i).getSize());
+                headerOut.writeInt(ranges.get(i)[1] < 0 ? -1 : dataStart + ranges.get(i)[0]);
+                headerOut.writeInt(ranges.get(i)[1]);
+            }
+
+            final Path temp = Filesystem.CONFIG_PACK_CACHE_PATH.resolveSibling(Filesystem.CONFIG_PACK_CACHE_PATH.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(header.toByteArray()));
+                channel.write(ByteBuffer.wrap(data.toByteArray()));
+            }
+            Files.move(temp, Filesystem.CONFIG_PACK_CACHE_PATH, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            if (Configuration.DEBUG_ALL || Configuration.DEBUG_PACKS) {
+                Almura.LOGGER.error("Failed to write pack cache [" + Filesystem.CONFIG_PACK_CACHE_PATH + "].", e);
+            } else {
+                Almura.LOGGER.warn("Failed to write pack cache [" + Filesystem.CONFIG_PACK_CACHE_PATH + "].");
+            }
+        }
+    }
+
+    private static boolean isSkipped(PackParser.ParsedDocument document) {
+        final Entry entry = ENTRIES.get(document.getPath().toString());
+        return entry != null && entry.length < 0 && entry.modified == document.getModified() && entry.size == document.getSize();
+    }
+
+    /**
+     * Drops the table and unmaps the cache file.
+     */
+    public static void close() {
+        ENTRIES.clear();
+        if (buffer != null) {
+            // Unmap eagerly, a mapped file can't be replaced on some platforms
+            try {
+                final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                final Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    final Method cleanMethod = cleaner.getClass().getMethod("clean");
+                    cleanMethod.setAccessible(true);
+                    cleanMethod.invoke(cleaner);
+                }
+            } catch (Exception ignored) {
+            }
+            buffer = null;
+        }
+    }
+
+    private static void writeNode(DataOutputStream out, ConfigurationNode node) throws IOException {
+        if (node.hasMapChildren()) {
+            final Map<Object, ? extends ConfigurationNode> children = node.getChildrenMap();
+            out.writeByte(TAG_MAP);
+            out.writeInt(children.size());
+            for (Map.Entry<Object, ? extends ConfigurationNode> child : children.entrySet()) {
+                writeScalar(out, child.getKey());
+                writeNode(out, child.getValue());
+            }
+        } else if (node.hasListChildren()) {
+            final List<? extends ConfigurationNode> children = node.getChildrenList();
+            out.writeByte(TAG_LIST);
+            out.writeInt(children.size());
+            for (ConfigurationNode child : children) {
+                writeNode(out, child);
+            }
+        } else {
+            writeScalar(out, node.getValue());
+        }
+    }
+
+    private static void writeScalar(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof String) {
+            out.writeByte(TAG_STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(TAG_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(TAG_INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TAG_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Float) {
+            out.writeByte(TAG_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Double) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof BigInteger) {
+            out.writeByte(TAG_BIG_INTEGER);
+            writeString(out, value.toString());
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(TAG_BIG_DECIMAL);
+            writeString(out, value.toString());
+        } else if (value instanceof Date) {
+            out.writeByte(TAG_DATE);
+            out.writeLong(((Date) value).getTime());
+        } else {
+            throw new IOException("Value [" + value + "] of type [" + value.getClass().getName() + "] can't be cached.");
+        }
+    }
+
+    private static Object readValue(ByteBuffer data) {
+        final byte tag = data.get();
+        switch (tag) {
+            case TAG_MAP:
+                final int mapSize = data.getInt();
+                final Map<Object, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < mapSize; i++) {
+                    final Object key = readValue(data);
+                    map.put(key, readValue(data));
+                }
+                return map;
+            case TAG_LIST:
+                final int listSize = data.getInt();
+                final List<Object> list = Lists.newArrayListWithCapacity(listSize);
+                for (int i = 0; i < listSize; i++) {
+                    list.add(readValue(data));
+                }
+                return list;
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return readString(data);
+            case TAG_BOOLEAN:
+                return data.get() != 0;
+            case TAG_INTEGER:
+                return data.getInt();
+            case TAG_LONG:
+                return data.getLong();
+            case TAG_FLOAT:
+                return data.getFloat();
+            case TAG_DOUBLE:
+                return data.getDouble();
+            case TAG_BIG_INTEGER:
+                return new BigInteger(readString(data));
+            case TAG_BIG_DECIMAL:
+                return new BigDecimal(readString(data));
+            case TAG_DATE:
+                return new Date(data.getLong());
+            default:
+                throw new IllegalStateException("Unknown tag [" + tag + "] in pack cache.");
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer data) {
+        final byte[] bytes = new byte[data.getInt()];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class Entry {
+
+        private final long modified, size;
+        // Length is -1 for a document that could not be cached
+        private final int offset, length;
+
+        private Entry(long modified, long size, int offset, int length) {
+            this.modified = modified;
+            this.size = size;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
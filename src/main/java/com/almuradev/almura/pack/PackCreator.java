@@ -96,11 +96,11 @@ public class PackCreator {
                 enableCollision =
                 boundsConfigurationNode.getNode(PackKeys.USE_VANILLA_COLLISION.getKey())
                         .getBoolean(PackKeys.USE_VANILLA_COLLISION.getDefaultValue());
-        List<Double> collisionCoordinates = Lists.newLinkedList();
+        double[] collisionCoordinates = new double[0];
 
         try {
             collisionCoordinates =
-                    PackUtil.parseStringToNumericList(Double.class, boundsConfigurationNode.getNode(PackKeys.COLLISION_BOX.getKey())
+                    PackUtil.parseDoubles(boundsConfigurationNode.getNode(PackKeys.COLLISION_BOX.getKey())
                             .getString(PackKeys.COLLISION_BOX.getDefaultValue()), 6);
         } catch (NumberFormatException e) {
             if (Configuration.DEBUG_ALL || Configuration.DEBUG_PACKS) {
@@ -116,10 +116,10 @@ public class PackCreator {
                 enableWireframe =
                 boundsConfigurationNode.getNode(PackKeys.USE_VANILLA_WIREFRAME.getKey())
                         .getBoolean(PackKeys.USE_VANILLA_WIREFRAME.getDefaultValue());
-        List<Double> wireframeCoordinates = Lists.newLinkedList();
+        double[] wireframeCoordinates = new double[0];
 
         try {
-            wireframeCoordinates = PackUtil.parseStringToNumericList(Double.class, boundsConfigurationNode.getNode(PackKeys.WIREFRAME_BOX.getKey())
+            wireframeCoordinates = PackUtil.parseDoubles(boundsConfigurationNode.getNode(PackKeys.WIREFRAME_BOX.getKey())
                     .getString(PackKeys.WIREFRAME_BOX.getDefaultValue()), 6);
         } catch (NumberFormatException e) {
             if (Configuration.DEBUG_ALL || Configuration.DEBUG_PACKS) {
@@ -132,21 +132,31 @@ public class PackCreator {
         }
 
         AxisAlignedBB collisionBox = null;
-        if (collisionCoordinates.size() == 6) {
+        if (collisionCoordinates.length == 6) {
             collisionBox =
-                    AxisAlignedBB.getBoundingBox(collisionCoordinates.get(0), collisionCoordinates.get(1), collisionCoordinates.get(2),
-                            collisionCoordinates.get(3), collisionCoordinates.get(4), collisionCoordinates.get(5));
+                    AxisAlignedBB.getBoundingBox(collisionCoordinates[0], collisionCoordinates[1], collisionCoordinates[2],
+                            collisionCoordinates[3], collisionCoordinates[4], collisionCoordinates[5]);
         }
         AxisAlignedBB wireframeBox = null;
-        if (wireframeCoordinates.size() == 6) {
+        if (wireframeCoordinates.length == 6) {
             wireframeBox =
-                    AxisAlignedBB.getBoundingBox(wireframeCoordinates.get(0), wireframeCoordinates.get(1), wireframeCoordinates.get(2),
-                            wireframeCoordinates.get(3), wireframeCoordinates.get(4), wireframeCoordinates.get(5));
+                    AxisAlignedBB.getBoundingBox(wireframeCoordinates[0], wireframeCoordinates[1], wireframeCoordinates[2],
+                            wireframeCoordinates[3], wireframeCoordinates[4], wireframeCoordinates[5]);
         }
 
         return new PackModelContainer(name, new PackPhysics(enableCollision, enableWireframe, collisionBox, wireframeBox));
     }
 
+    /**
+     * Checks if a model document has any faces without building its shape.
+     *
+     * @param reader The model's document
+     * @return True if the shape will have faces
+     */
+    public static boolean hasShapeFaces(ConfigurationNode reader) {
+        return !reader.getNode(PackKeys.SHAPES.getKey()).getChildrenList().isEmpty();
+    }
+
     @SideOnly(Side.CLIENT)
     public static void loadShapeIntoModelContainer(PackModelContainer modelContainer, String name, ConfigurationNode reader)
             throws IOException {
@@ -159,9 +169,9 @@ public class PackCreator {
 
             final List<Vertex> vertices = Lists.newLinkedList();
             for (String rawCoordinate : rawCoordinateString.substring(0, rawCoordinateString.length()).split("\n")) {
-                final List<Double> coordinates = Lists.newArrayList();
+                final double[] coordinates;
                 try {
-                    coordinates.addAll(PackUtil.parseStringToNumericList(Double.class, rawCoordinate, 3));
+                    coordinates = PackUtil.parseDoubles(rawCoordinate, 3);
                 } catch (NumberFormatException nfe) {
                     if (Configuration.DEBUG_ALL || Configuration.DEBUG_PACKS) {
                         Almura.LOGGER.error("Could not parse vertex in model [" + name + "]. Value: [" + rawCoordinate + "]", nfe);
@@ -171,8 +181,12 @@ public class PackCreator {
                     continue;
                 }
 
+                if (coordinates.length == 0) {
+                    continue;
+                }
+
                 //Convert list of coordinates to vertex
-                vertices.add(new Vertex(coordinates.get(0), coordinates.get(1), coordinates.get(2)));
+                vertices.add(new Vertex(coordinates[0], coordinates[1], coordinates[2]));
             }
             final RenderParameters params = new RenderParameters();
             
@@ -209,6 +223,7 @@ public class PackCreator {
         }
 
         shape.storeState();
+        shape.findFlushFaces();
         modelContainer.setModel(shape);
     }
 
@@ -222,12 +237,7 @@ public class PackCreator {
         }
         final String textureName = reader.getNode(PackKeys.TEXTURE.getKey()).getString(PackKeys.TEXTURE.getDefaultValue()).split(".png")[0];
         final String modelName = reader.getNode(PackKeys.SHAPE.getKey()).getString(PackKeys.SHAPE.getDefaultValue()).split(".shape")[0];
-        PackModelContainer modelContainer = null;
-        for (PackModelContainer mContainer : Pack.getModelContainers()) {
-            if (mContainer.getIdentifier().equalsIgnoreCase(modelName)) {
-                modelContainer = mContainer;
-            }
-        }
+        final PackModelContainer modelContainer = Pack.getModelContainer(modelName);
         if (modelContainer == null && (Configuration.DEBUG_ALL || Configuration.DEBUG_PACKS)) {
             Almura.LOGGER
                     .warn("Model [" + modelName + "] in [" + name + "] in pack [" + pack.getName() + "] was not found. Will render as a basic cube.");
@@ -278,12 +288,7 @@ public class PackCreator {
         }
         final String textureName = reader.getNode(PackKeys.TEXTURE.getKey()).getString(PackKeys.TEXTURE.getDefaultValue()).split(".png")[0];
         final String modelName = reader.getNode(PackKeys.SHAPE.getKey()).getString(PackKeys.SHAPE.getDefaultValue()).split(".shape")[0];
-        PackModelContainer modelContainer = null;
-        for (PackModelContainer mContainer : Pack.getModelContainers()) {
-            if (mContainer.getIdentifier().equalsIgnoreCase(modelName)) {
-                modelContainer = mContainer;
-            }
-        }
+        final PackModelContainer modelContainer = Pack.getModelContainer(modelName);
         if (modelContainer == null && (Configuration.DEBUG_ALL || Configuration.DEBUG_PACKS)) {
             Almura.LOGGER
                     .warn("Model [" + modelName + "] in [" + name + "] in pack [" + pack.getName() + "] was not found. Will render as a basic item.");
@@ -325,12 +330,7 @@ public class PackCreator {
         }
         final String textureName = reader.getNode(PackKeys.TEXTURE.getKey()).getString(PackKeys.TEXTURE.getDefaultValue()).split(".png")[0];
         final String modelName = reader.getNode(PackKeys.SHAPE.getKey()).getString(PackKeys.SHAPE.getDefaultValue()).split(".shape")[0];
-        PackModelContainer modelContainer = null;
-        for (PackModelContainer mContainer : Pack.getModelContainers()) {
-            if (mContainer.getIdentifier().equalsIgnoreCase(modelName)) {
-                modelContainer = mContainer;
-            }
-        }
+        final PackModelContainer modelContainer = Pack.getModelContainer(modelName);
         if (modelContainer == null && (Configuration.DEBUG_ALL || Configuration.DEBUG_PACKS)) {
             Almura.LOGGER
                     .warn("Model [" + modelName + "] in [" + name + "] in pack [" + pack.getName() + "] was not found. Will render as a basic cube");
@@ -392,6 +392,7 @@ public class PackCreator {
                         + "] already exists as a stage.");
             }
         }
+        crop.compileStages();
 
         return crop;
     }
@@ -407,12 +408,7 @@ public class PackCreator {
             tooltip.remove(0);
         }
         final String modelName = reader.getNode(PackKeys.SHAPE.getKey()).getString(PackKeys.SHAPE.getDefaultValue()).split(".shape")[0];
-        PackModelContainer modelContainer = null;
-        for (PackModelContainer mContainer : Pack.getModelContainers()) {
-            if (mContainer.getIdentifier().equalsIgnoreCase(modelName)) {
-                modelContainer = mContainer;
-            }
-        }
+        final PackModelContainer modelContainer = Pack.getModelContainer(modelName);
         if (modelContainer == null && (Configuration.DEBUG_ALL || Configuration.DEBUG_PACKS)) {
             Almura.LOGGER
                     .warn("Model [" + modelName + "] for seed in [" + crop.getIdentifier() + "] in pack [" + pack.getName()
@@ -450,12 +446,7 @@ public class PackCreator {
     @SuppressWarnings("unchecked")
     public static Stage createCropStage(Pack pack, String name, PackCrops crop, int id, ConfigurationNode reader) {
         final String modelName = reader.getNode(PackKeys.SHAPE.getKey()).getString(PackKeys.SHAPE.getDefaultValue()).split(".shape")[0];
-        PackModelContainer modelContainer = null;
-        for (PackModelContainer mContainer : Pack.getModelContainers()) {
-            if (mContainer.getIdentifier().equalsIgnoreCase(modelName)) {
-                modelContainer = mContainer;
-            }
-        }
+        final PackModelContainer modelContainer = Pack.getModelContainer(modelName);
         if (modelContainer == null && (Configuration.DEBUG_ALL || Configuration.DEBUG_PACKS)) {
             Almura.LOGGER.warn("Model [" + modelName + "] in stage [" + id + "] in [" + name + "] in pack [" + pack.getName()
                     + "] was not found. Will render as a basic cube.");
@@ -489,12 +480,7 @@ public class PackCreator {
         }
         final String textureName = reader.getNode(PackKeys.TEXTURE.getKey()).getString(PackKeys.TEXTURE.getDefaultValue()).split(".png")[0];
         final String modelName = reader.getNode(PackKeys.SHAPE.getKey()).getString(PackKeys.SHAPE.getDefaultValue()).split(".shape")[0];
-        PackModelContainer modelContainer = null;
-        for (PackModelContainer mContainer : Pack.getModelContainers()) {
-            if (mContainer.getIdentifier().equalsIgnoreCase(modelName)) {
-                modelContainer = mContainer;
-            }
-        }
+        final PackModelContainer modelContainer = Pack.getModelContainer(modelName);
         if (modelContainer == null && (Configuration.DEBUG_ALL || Configuration.DEBUG_PACKS)) {
             Almura.LOGGER
                     .warn("Model [" + modelName + "] in [" + name + "] in pack [" + pack.getName() + "] was not found. Will render as a basic cube.");
@@ -572,12 +558,7 @@ public class PackCreator {
                         modelName =
                         stateConfigurationNodes.getValue().getNode(PackKeys.SHAPE.getKey()).getString(PackKeys.SHAPE.getDefaultValue())
                                 .split(".shape")[0];
-                PackModelContainer modelContainer = null;
-                for (PackModelContainer mContainer : Pack.getModelContainers()) {
-                    if (mContainer.getIdentifier().equalsIgnoreCase(modelName)) {
-                        modelContainer = mContainer;
-                    }
-                }
+                final PackModelContainer modelContainer = Pack.getModelContainer(modelName);
                 if (modelContainer == null && (Configuration.DEBUG_ALL || Configuration.DEBUG_PACKS)) {
                     Almura.LOGGER
                             .warn("Model [" + modelName + "] for state [" + rawState.toUpperCase() + "] in [" + name + "] in pack [" + pack.getName()
@@ -925,7 +906,7 @@ public class PackCreator {
         return new SoilNode(source.get(), biomeNode);
     }
 
-    private static GrowthNode createGrowthNode(Pack pack, String name, ConfigurationNode reader) {
+    public static GrowthNode createGrowthNode(Pack pack, String name, ConfigurationNode reader) {
         final Pair<Double, Double>
                 chancePair =
                 PackUtil.getRange(Double.class, reader.getNode(PackKeys.CHANCE.getKey()).getString(PackKeys.CHANCE.getDefaultValue()), 100.0);
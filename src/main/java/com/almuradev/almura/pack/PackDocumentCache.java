@@ -0,0 +1,55 @@
+/**
+ * This file is part of Almura, All Rights Reserved.
+ *
+ * Copyright (c) 2014 AlmuraDev <http://github.com/AlmuraDev/>
+ */
+package com.almuradev.almura.pack;
+
+import com.almuradev.almura.Filesystem;
+import com.google.common.collect.Maps;
+import ninja.leaping.configurate.ConfigurationNode;
+import ninja.leaping.configurate.yaml.YAMLConfigurationLoader;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds the parsed YAML document of every pack file between the load stages so each file is only parsed once. Released when
+ * initialization completes.
+ */
+public class PackDocumentCache {
+
+    private static final ConcurrentMap<String, ConfigurationNode> DOCUMENTS = Maps.newConcurrentMap();
+
+    public static void put(Pack pack, String identifier, ConfigurationNode reader) {
+        DOCUMENTS.put(getKey(pack, identifier), reader);
+    }
+
+    /**
+     * Gets the document for the identifier within the pack, parsing it from the packs folder if it was never cached.
+     *
+     * @param pack The pack
+     * @param identifier The identifier (file name without extension)
+     * @return The document
+     * @throws IOException If the document had to be parsed and that failed
+     */
+    public static ConfigurationNode get(Pack pack, String identifier) throws IOException {
+        final String key = getKey(pack, identifier);
+        ConfigurationNode reader = DOCUMENTS.get(key);
+        if (reader == null) {
+            reader = YAMLConfigurationLoader.builder()
+                    .setFile(Paths.get(Filesystem.CONFIG_YML_PATH.toString(), pack.getName(), identifier + ".yml").toFile()).build().load();
+            DOCUMENTS.put(key, reader);
+        }
+        return reader;
+    }
+
+    public static void release() {
+        DOCUMENTS.clear();
+    }
+
+    private static String getKey(Pack pack, String identifier) {
+        return pack.getName() + "\\" + identifier;
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * This file is part of Almura, All Rights Reserved.
+ *
+ * Copyright (c) 2014 AlmuraDev <http://github.com/AlmuraDev/>
+ */
+package com.almuradev.almura.pack;
+
+import com.almuradev.almura.LoadProfiler;
+import ninja.leaping.configurate.ConfigurationNode;
+import ninja.leaping.configurate.yaml.YAMLConfigurationLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parses pack files in parallel. Parsing is the only work done off the main thread, anything touching the game registries is left to the
+ * caller so registration order stays the same as a serial load.
+ */
+public class PackParser {
+
+    private static final int FILES_PER_TASK = 8;
+
+    /**
+     * Parses every path on a fork-join pool sized to the available processors. Files unchanged since the last load are read from the
+     * {@link PackCache} instead.
+     *
+     * @param paths The files to parse
+     * @return The parsed documents, in the same order as the paths
+     */
+    public static ParsedDocument[] parse(List<Path> paths) {
+        final ParsedDocument[] documents = new ParsedDocument[paths.size()];
+        if (paths.isEmpty()) {
+            return documents;
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool();
+        try {
+            pool.invoke(new ParseAction(paths, documents, 0, paths.size()));
+        } finally {
+            pool.shutdown();
+        }
+        return documents;
+    }
+
+    public static final class ParsedDocument {
+
+        private final Path path;
+        private final ConfigurationNode reader;
+        private final IOException exception;
+        private final long modified, size;
+        private final boolean cached;
+
+        private ParsedDocument(Path path, ConfigurationNode reader, IOException exception, long modified, long size, boolean cached) {
+            this.path = path;
+            this.reader = reader;
+            this.exception = exception;
+            this.modified = modified;
+            this.size = size;
+            this.cached = cached;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public long getModified() {
+            return modified;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Gets if the document was read from the {@link PackCache} rather than parsed.
+         *
+         * @return True if cached
+         */
+        public boolean isCached() {
+            return cached;
+        }
+
+        /**
+         * Gets the parsed document.
+         *
+         * @return The document
+         * @throws IOException The exception raised while parsing, if any
+         */
+        public ConfigurationNode getReader() throws IOException {
+            if (exception != null) {
+                throw exception;
+            }
+            return reader;
+        }
+    }
+
+    private static final class ParseAction extends RecursiveAction {
+
+        private final List<Path> paths;
+        private final ParsedDocument[] documents;
+        private final int start, end;
+
+        private ParseAction(List<Path> paths, ParsedDocument[] documents, int start, int end) {
+            this.paths = paths;
+            this.documents = documents;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= FILES_PER_TASK) {
+                for (int i = start; i < end; i++) {
+                    final Path path = paths.get(i);
+                    final LoadProfiler.Section section =
+                            LoadProfiler.begin(LoadProfiler.STAGE_PARSE, path.getParent().getFileName().toString(), path.getFileName().toString());
+                    long modified = -1, size = -1;
+                    try {
+                        final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                        modified = attributes.lastModifiedTime().toMillis();
+                        size = attributes.size();
+
+                        final ConfigurationNode cached = PackCache.get(path, modified, size);
+                        if (cached != null) {
+                            documents[i] = new ParsedDocument(path, cached, null, modified, size, true);
+                        } else {
+                            documents[i] = new ParsedDocument(path, YAMLConfigurationLoader.builder().setFile(path.toFile()).build().load(), null,
+                                    modified, size, false);
+                        }
+                    } catch (IOException e) {
+                        documents[i] = new ParsedDocument(path, null, e, modified, size, false);
+                    }
+                    section.end(1);
+                }
+                return;
+            }
+
+            final int middle = (start + end) >>> 1;
+            invokeAll(new ParseAction(paths, documents, start, middle), new ParseAction(paths, documents, middle, end));
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/**
+ * This file is part of Almura, All Rights Reserved.
+ *
+ * Copyright (c) 2014 AlmuraDev <http://github.com/AlmuraDev/>
+ */
+package com.almuradev.almura.pack;
+
+import com.almuradev.almura.Almura;
+import com.almuradev.almura.Configuration;
+import com.almuradev.almura.Filesystem;
+import com.almuradev.almura.pack.block.PackBlock;
+import com.almuradev.almura.pack.container.PackContainerBlock;
+import com.almuradev.almura.pack.crop.PackCrops;
+import com.almuradev.almura.pack.crop.PackSeeds;
+import com.almuradev.almura.pack.crop.Stage;
+import com.almuradev.almura.pack.node.INode;
+import com.almuradev.almura.pack.node.LightNode;
+import com.almuradev.almura.pack.node.RecipeNode;
+import com.almuradev.almura.recipe.IRecipe;
+import com.almuradev.almura.recipe.RecipeContainer;
+import com.almuradev.almura.recipe.RecipeManager;
+import com.almuradev.almurasdk.FileSystem;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import cpw.mods.fml.common.FMLCommonHandler;
+import net.minecraft.block.Block;
+import net.minecraft.item.Item;
+import ninja.leaping.configurate.ConfigurationNode;
+import ninja.leaping.configurate.yaml.YAMLConfigurationLoader;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reloads the nodes of pack objects whose file changed on disk since it was last read. Only nodes are rebuilt, anything registered with the
+ * game (new blocks, items, textures, models) still needs a restart.
+ *
+ * Every node of an object is built before any is swapped in, so an object never runs with a mix of old and new nodes on a tick.
+ *
+ * Light emission, light opacity and collision are also evaluated by clients. A dedicated server has no way to send them new nodes, so
+ * there those are left as they are until a restart rather than having the server disagree with every client on movement and lighting.
+ * The light range is server only growth logic and is always reloaded.
+ */
+public class PackReloader {
+
+    private static final Map<Path, Long> MODIFIED = Maps.newConcurrentMap();
+
+    /**
+     * Gets if light emission, light opacity and collision are reloaded, only when the client runs in the same process and shares the pack
+     * objects.
+     *
+     * @return True if client visible values are reloaded
+     */
+    public static boolean reloadsClientNodes() {
+        return FMLCommonHandler.instance().getSide().isClient();
+    }
+
+    /**
+     * Remembers when each document was modified so a later reload can skip unchanged files.
+     *
+     * @param documents The documents read by the load
+     */
+    public static void record(PackParser.ParsedDocument[] documents) {
+        for (PackParser.ParsedDocument document : documents) {
+            MODIFIED.put(document.getPath(), document.getModified());
+        }
+    }
+
+    /**
+     * Rebuilds the nodes of every pack object whose file changed. Must be called on the server thread.
+     *
+     * @return The files that were reloaded
+     */
+    public static List<Path> reloadChanged() {
+        final List<Path> reloaded = Lists.newArrayList();
+        final List<Path> packRoots = Lists.newArrayList();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(Filesystem.CONFIG_YML_PATH, FileSystem.FILTER_DIRECTORIES_ONLY)) {
+            for (Path path : stream) {
+                packRoots.add(path);
+            }
+        } catch (IOException e) {
+            Almura.LOGGER.error("Failed filtering folders from [" + Filesystem.CONFIG_YML_PATH + "].", e);
+            return reloaded;
+        }
+
+        for (Path root : packRoots) {
+            final Pack pack = Pack.getPacks().get(root.getFileName().toString());
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(root, FileSystem.FILTER_YAML_FILES_ONLY)) {
+                for (Path path : stream) {
+                    final long modified = Files.getLastModifiedTime(path).toMillis();
+                    final Long previous = MODIFIED.get(path);
+                    if (previous != null && previous == modified) {
+                        continue;
+                    }
+                    if (pack == null) {
+                        Almura.LOGGER.warn("Pack [" + root.getFileName() + "] was not loaded at startup. Restart the server to load [" + path + "].");
+                        continue;
+                    }
+                    if (reload(pack, path)) {
+                        reloaded.add(path);
+                    }
+                    MODIFIED.put(path, modified);
+                }
+            } catch (IOException e) {
+                Almura.LOGGER.error("Failed filtering files from [" + root + "].", e);
+            }
+        }
+        return reloaded;
+    }
+
+    private static boolean reload(Pack pack, Path path) {
+        final String name = path.getFileName().toString().split(".yml")[0];
+        final ConfigurationNode reader;
+        try {
+            reader = YAMLConfigurationLoader.builder().setFile(path.toFile()).build().load();
+        } catch (IOException e) {
+            if (Configuration.DEBUG_ALL || Configuration.DEBUG_PACKS) {
+                Almura.LOGGER.error("Failed to reload [" + path + "] for pack [" + pack.getName() + "].", e);
+            } else {
+                Almura.LOGGER.error("Failed to reload [" + path + "] for pack [" + pack.getName() + "].");
+            }
+            return false;
+        }
+
+        for (Block block : pack.getBlocks()) {
+            if (block instanceof IPackObject && ((IPackObject) block).getIdentifier().equals(name)) {
+                if (block instanceof PackCrops) {
+                    reloadCrop(pack, (PackCrops) block, reader);
+                } else if (block instanceof PackBlock || block instanceof PackContainerBlock) {
+                    reloadBlock(pack, block, reader);
+                }
+                return true;
+            }
+        }
+
+        for (Item item : pack.getItems()) {
+            if (item instanceof IPackObject && item instanceof INodeContainer && ((IPackObject) item).getIdentifier().equals(name)) {
+                swap((INodeContainer) item, reloadRecipes(pack, name, item, (INodeContainer) item, reader.getNode(PackKeys.NODE_RECIPES.getKey())));
+                return true;
+            }
+        }
+
+        Almura.LOGGER.warn("[" + name + "] in pack [" + pack.getName() + "] is not a loaded object. Restart the server to load it.");
+        return false;
+    }
+
+    private static void reloadBlock(Pack pack, Block block, ConfigurationNode reader) {
+        final String name = ((IPackObject) block).getIdentifier();
+        final INodeContainer container = (INodeContainer) block;
+
+        final boolean clientNodes = reloadsClientNodes();
+        swap(container,
+                reloadLight(container, PackCreator.createLightNode(pack, name, reader.getNode(PackKeys.NODE_LIGHT.getKey())), clientNodes),
+                clientNodes ? PackCreator.createCollisionNode(pack, name, reader.getNode(PackKeys.NODE_COLLISION.getKey())) : null,
+                PackCreator.createBreakNode(pack, name, block, true, reader.getNode(PackKeys.NODE_BREAK.getKey())),
+                reloadRecipes(pack, name, block, container, reader.getNode(PackKeys.NODE_RECIPES.getKey())));
+    }
+
+    private static void reloadCrop(Pack pack, PackCrops crop, ConfigurationNode reader) {
+        for (Stage stage : crop.getStages().values()) {
+            final ConfigurationNode stageNode = reader.getNode(PackKeys.NODE_STAGES.getKey(), stage.getId());
+            if (stageNode.isVirtual()) {
+                Almura.LOGGER.warn("Stage [" + stage.getId() + "] in [" + crop.getIdentifier() + "] in pack [" + pack.getName()
+                        + "] was removed. Restart the server to remove stages.");
+                continue;
+            }
+            final String stageName = crop.getIdentifier() + "\\stage\\" + stage.getId();
+
+            final boolean clientNodes = reloadsClientNodes();
+            swap(stage,
+                    PackCreator.createGrowthNode(pack, stageName, stageNode.getNode(PackKeys.NODE_GROWTH.getKey())),
+                    reloadLight(stage, PackCreator.createLightNode(pack, stageName, stageNode.getNode(PackKeys.NODE_LIGHT.getKey())), clientNodes),
+                    clientNodes ? PackCreator.createCollisionNode(pack, stage.getIdentifier(), stageNode.getNode(PackKeys.NODE_COLLISION.getKey()))
+                            : null,
+                    PackCreator.createBreakNode(pack, stage.getIdentifier(), crop, false, stageNode.getNode(PackKeys.NODE_BREAK.getKey())),
+                    PackCreator.createFertilizerNode(pack, stage.getIdentifier(), stage.getId(),
+                            stageNode.getNode(PackKeys.NODE_FERTILIZER.getKey())));
+        }
+
+        swap(crop, reloadRecipes(pack, crop.getIdentifier(), crop, crop, reader.getNode(PackKeys.NODE_RECIPES.getKey())));
+
+        for (Item item : pack.getItems()) {
+            if (item instanceof PackSeeds && ((PackSeeds) item).field_150925_a == crop) {
+                final PackSeeds seed = (PackSeeds) item;
+                swap(seed, reloadRecipes(pack, seed.getIdentifier(), seed, seed,
+                        reader.getNode(PackKeys.NODE_SEED.getKey(), PackKeys.NODE_RECIPES.getKey())));
+            }
+        }
+    }
+
+    /**
+     * Removes the recipes of the container's current {@link RecipeNode} before creating the new one, otherwise every unchanged recipe would be
+     * rejected as a duplicate of itself.
+     */
+    private static RecipeNode reloadRecipes(Pack pack, String name, Object result, INodeContainer container, ConfigurationNode node) {
+        final RecipeNode previous = container.getNode(RecipeNode.class);
+        if (previous != null) {
+            for (RecipeContainer<? extends IRecipe> recipeContainer : previous.getValue()) {
+                RecipeManager.unregisterRecipe(recipeContainer.getRecipe());
+            }
+        }
+        return PackCreator.createRecipeNode(pack, name, result, node);
+    }
+
+    /**
+     * Keeps the current emission and opacity of the container unless client visible values are reloaded, the light range is always taken
+     * from the new node. Swapping a stage's light node recompiles the crop's stage table.
+     */
+    private static LightNode reloadLight(INodeContainer container, LightNode light, boolean clientNodes) {
+        final LightNode previous = container.getNode(LightNode.class);
+        if (clientNodes) {
+            return light;
+        }
+        return previous == null ? null : new LightNode(previous.getEmission(), previous.getOpacity(), light.getValue());
+    }
+
+    private static void swap(INodeContainer container, INode<?>... nodes) {
+        for (INode<?> node : nodes) {
+            if (node != null) {
+                container.addNode(node);
+            }
+        }
+    }
+}
@@ -7,10 +7,13 @@ package com.almuradev.almura.pack;
 
 import com.almuradev.almura.Almura;
 import com.almuradev.almura.Configuration;
-import com.almuradev.almura.Filesystem;
-import com.almuradev.almurasdk.FileSystem;
+import com.almuradev.almura.pack.node.property.DoubleRange;
+import com.almuradev.almura.pack.node.property.FloatRange;
+import com.almuradev.almura.pack.node.property.IntRange;
+import com.almuradev.almura.pack.renderer.PackTextureCache;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.primitives.Ints;
 import net.malisis.core.renderer.icon.ClippedIcon;
 import net.malisis.core.renderer.icon.MalisisIcon;
 import net.minecraft.util.IIcon;
@@ -20,19 +23,20 @@ import org.apache.commons.lang3.tuple.Pair;
 
 import java.awt.Dimension;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 public class PackUtil {
 
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+            1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
     public static Map<Integer, List<Integer>> parseCoordinatesFrom(List<String> value) throws NumberFormatException {
         final Map<Integer, List<Integer>> textureCoordinates = Maps.newHashMap();
 
         for (int i = 0; i < value.size(); i++) {
-            textureCoordinates.put(i, parseStringToNumericList(Integer.class, value.get(i), 4));
+            textureCoordinates.put(i, Ints.asList(parseInts(value.get(i), 4)));
         }
 
         if (textureCoordinates.isEmpty()) {
@@ -47,9 +51,7 @@ public class PackUtil {
         Dimension dimension = null;
 
         try {
-            dimension =
-                    FileSystem.getImageDimension(Files.newInputStream(
-                            Paths.get(Filesystem.CONFIG_IMAGES_PATH.toString(), textureName + ".png")));
+            dimension = PackTextureCache.getDimension(textureName);
         } catch (IOException e) {
             if (Configuration.DEBUG_ALL || Configuration.DEBUG_PACKS) {
                 Almura.LOGGER.error("Failed to load texture [" + textureName + "] for dimensions", e);
@@ -95,101 +97,251 @@ public class PackUtil {
 
     @SuppressWarnings("unchecked")
     public static <N extends Number> Pair<N, N> getRange(Class<N> clazz, String rawRangeSource, N fallback) throws NumberFormatException {
-        N minAmount = fallback, maxAmount = minAmount;
-        if (!rawRangeSource.isEmpty()) {
-            rawRangeSource = rawRangeSource.trim().endsWith("-") ? rawRangeSource.substring(0, rawRangeSource.length() - 1) : rawRangeSource;
-            final String[] split = rawRangeSource.split("-");
-            int minIndex = 0, maxIndex = Integer.MIN_VALUE;
-            boolean minNeg, maxNeg = minNeg = false;
-            if (split[0].startsWith("^")) {
-                minNeg = true;
-                split[0] = split[0].substring(1, split[0].length());
+        if (clazz == Integer.class) {
+            final IntRange range = getIntRange(rawRangeSource, fallback.intValue());
+            return new ImmutablePair<>((N) Integer.valueOf(range.getMin()), (N) Integer.valueOf(range.getMax()));
+        } else if (clazz == Double.class) {
+            final DoubleRange range = getDoubleRange(rawRangeSource, fallback.doubleValue());
+            return new ImmutablePair<>((N) Double.valueOf(range.getMin()), (N) Double.valueOf(range.getMax()));
+        } else if (clazz == Float.class) {
+            final FloatRange range = getFloatRange(rawRangeSource, fallback.floatValue());
+            return new ImmutablePair<>((N) Float.valueOf(range.getMin()), (N) Float.valueOf(range.getMax()));
+        }
+        return new ImmutablePair<>(fallback, fallback);
+    }
+
+    /**
+     * Parses a range such as "1-4" or "^2-3", where ^ marks a negative value. A single value is both the min and max.
+     *
+     * @param rawRangeSource The raw range
+     * @param fallback The value to use for an empty range
+     * @return The range, with min and max swapped if given in reverse
+     * @throws NumberFormatException If either value is not a number
+     */
+    public static IntRange getIntRange(String rawRangeSource, int fallback) throws NumberFormatException {
+        final String source = trimRange(rawRangeSource);
+        if (source.isEmpty()) {
+            return new IntRange(fallback, fallback);
+        }
+        final int separator = source.indexOf('-');
+        final int min = parseRangeInt(source, 0, separator == -1 ? source.length() : separator);
+        final int max = separator == -1 ? min : parseRangeInt(source, separator + 1, nextSeparator(source, separator));
+        return max < min ? new IntRange(max, min) : new IntRange(min, max);
+    }
+
+    /**
+     * Double variant of {@link #getIntRange(String, int)}.
+     */
+    public static DoubleRange getDoubleRange(String rawRangeSource, double fallback) throws NumberFormatException {
+        final String source = trimRange(rawRangeSource);
+        if (source.isEmpty()) {
+            return new DoubleRange(fallback, fallback);
+        }
+        final int separator = source.indexOf('-');
+        final double min = parseRangeDouble(source, 0, separator == -1 ? source.length() : separator);
+        final double max = separator == -1 ? min : parseRangeDouble(source, separator + 1, nextSeparator(source, separator));
+        return max < min ? new DoubleRange(max, min) : new DoubleRange(min, max);
+    }
+
+    /**
+     * Float variant of {@link #getIntRange(String, int)}.
+     */
+    public static FloatRange getFloatRange(String rawRangeSource, float fallback) throws NumberFormatException {
+        final String source = trimRange(rawRangeSource);
+        if (source.isEmpty()) {
+            return new FloatRange(fallback, fallback);
+        }
+        final int separator = source.indexOf('-');
+        final float min = parseRangeFloat(source, 0, separator == -1 ? source.length() : separator);
+        final float max = separator == -1 ? min : parseRangeFloat(source, separator + 1, nextSeparator(source, separator));
+        return max < min ? new FloatRange(max, min) : new FloatRange(min, max);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T extends Number> List<T> parseStringToNumericList(Class<T> clazz, String raw, int expectedSize) throws NumberFormatException {
+        final List<T> parsed = Lists.newArrayList();
+        if (clazz == Integer.class) {
+            for (int value : parseInts(raw, expectedSize)) {
+                parsed.add((T) Integer.valueOf(value));
             }
-            if (split.length > 1) {
-                maxNeg = split[1].startsWith("^");
-                maxIndex = 1;
-                if (maxNeg) {
-                    split[1] = split[1].substring(1, split[1].length());
-                }
+        } else if (clazz == Double.class) {
+            for (double value : parseDoubles(raw, expectedSize)) {
+                parsed.add((T) Double.valueOf(value));
             }
-            if (clazz == Integer.class) {
-                minAmount =
-                        (N) ((minNeg) ? new Integer(0 - Math.abs(Integer.parseInt(split[minIndex])))
-                                : new Integer(Integer.parseInt(split[minIndex])));
-                if (maxIndex != Integer.MIN_VALUE) {
-                    maxAmount =
-                            (N) ((maxNeg) ? new Integer(0 - Math.abs(Integer.parseInt(split[maxIndex])))
-                                    : new Integer(Integer.parseInt(split[maxIndex])));
-                } else {
-                    maxAmount = minAmount;
-                }
+        } else if (clazz == Float.class) {
+            for (double value : parseDoubles(raw, expectedSize)) {
+                parsed.add((T) Float.valueOf((float) value));
+            }
+        }
+        return parsed;
+    }
 
-                if (maxAmount.intValue() < minAmount.intValue()) {
-                    final N temp = minAmount;
-                    minAmount = maxAmount;
-                    maxAmount = temp;
+    /**
+     * Parses space separated values straight into an array.
+     *
+     * @param raw The raw values
+     * @param expectedSize The amount of values expected or {@link Integer#MIN_VALUE} for any
+     * @return The values, empty if raw has none
+     * @throws NumberFormatException If a value is not a number or the amount is not the one expected
+     */
+    public static double[] parseDoubles(String raw, int expectedSize) throws NumberFormatException {
+        final int count = countTokens(raw, expectedSize);
+        final double[] parsed = new double[count];
+        int index = 0, start = -1;
+        for (int i = 0, length = raw.length(); i <= length && index < count; i++) {
+            if (i == length || raw.charAt(i) <= ' ') {
+                if (start != -1) {
+                    parsed[index++] = parseDouble(raw, start, i);
+                    start = -1;
                 }
-            } else if (clazz == Double.class) {
-                minAmount =
-                        (N) ((minNeg) ? new Double(0 - Math.abs(Double.parseDouble(split[minIndex])))
-                                : new Double(Double.parseDouble(split[minIndex])));
-                if (maxIndex != Integer.MIN_VALUE) {
-                    maxAmount =
-                            (N) ((maxNeg) ? new Double(0 - Math.abs(Double.parseDouble(split[maxIndex])))
-                                    : new Double(Double.parseDouble(split[maxIndex])));
-                } else {
-                    maxAmount = minAmount;
-                }
-                if (maxAmount.doubleValue() < minAmount.doubleValue()) {
-                    final N temp = minAmount;
-                    minAmount = maxAmount;
-                    maxAmount = temp;
-                }
-            } else if (clazz == Float.class) {
-                minAmount =
-                        (N) ((minNeg) ? new Float(0 - Math.abs(Float.parseFloat(split[minIndex]))) : new Float(Float.parseFloat(split[minIndex])));
-                if (maxIndex != Integer.MIN_VALUE) {
-                    maxAmount =
-                            (N) ((maxNeg) ? new Float(0 - Math.abs(Float.parseFloat(split[maxIndex])))
-                                    : new Float(Float.parseFloat(split[maxIndex])));
-                } else {
-                    maxAmount = minAmount;
-                }
-                if (maxAmount.floatValue() < minAmount.floatValue()) {
-                    final N temp = minAmount;
-                    minAmount = maxAmount;
-                    maxAmount = temp;
+            } else if (start == -1) {
+                start = i;
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Int variant of {@link #parseDoubles(String, int)}.
+     */
+    public static int[] parseInts(String raw, int expectedSize) throws NumberFormatException {
+        final int count = countTokens(raw, expectedSize);
+        final int[] parsed = new int[count];
+        int index = 0, start = -1;
+        for (int i = 0, length = raw.length(); i <= length && index < count; i++) {
+            if (i == length || raw.charAt(i) <= ' ') {
+                if (start != -1) {
+                    parsed[index++] = parseInt(raw, start, i);
+                    start = -1;
                 }
+            } else if (start == -1) {
+                start = i;
             }
         }
-        return new ImmutablePair<>(minAmount, maxAmount);
+        return parsed;
     }
 
-    @SuppressWarnings("unchecked")
-    public static <T extends Number> List<T> parseStringToNumericList(Class<T> clazz, String raw, int expectedSize) throws NumberFormatException {
-        final List<T> parsed = Lists.newLinkedList();
-        if (raw.isEmpty()) {
-            return parsed;
-        }
-        final String[] split = raw.split(" ");
-        if (expectedSize != Integer.MIN_VALUE && split.length != expectedSize) {
-            throw new NumberFormatException("Expected size [" + expectedSize + "] but actual size was [" + split.length + "]");
-        }
-        for (String coordinate : raw.split(" ")) {
-            Object object = null;
-            if (clazz == Float.class) {
-                object = Float.parseFloat(coordinate);
-            } else if (clazz == Integer.class) {
-                object = Integer.parseInt(coordinate);
-            } else if (clazz == Double.class) {
-                object = Double.parseDouble(coordinate);
+    private static int countTokens(String raw, int expectedSize) throws NumberFormatException {
+        int count = 0;
+        boolean inToken = false;
+        for (int i = 0, length = raw.length(); i < length; i++) {
+            final boolean separator = raw.charAt(i) <= ' ';
+            if (!separator && !inToken) {
+                count++;
             }
+            inToken = !separator;
+        }
+        if (count != 0 && expectedSize != Integer.MIN_VALUE && count != expectedSize) {
+            throw new NumberFormatException("Expected size [" + expectedSize + "] but actual size was [" + count + "]");
+        }
+        return count;
+    }
 
-            if (object != null) {
-                parsed.add((T) object);
+    private static int parseInt(String raw, int start, int end) throws NumberFormatException {
+        if (start >= end) {
+            throw new NumberFormatException("For input string: \"\"");
+        }
+        int i = start;
+        boolean negative = false;
+        if (raw.charAt(i) == '-' || raw.charAt(i) == '+') {
+            negative = raw.charAt(i) == '-';
+            i++;
+        }
+        if (i == end) {
+            throw new NumberFormatException("For input string: \"" + raw.substring(start, end) + "\"");
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            final char c = raw.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("For input string: \"" + raw.substring(start, end) + "\"");
+            }
+            value = value * 10 + (c - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new NumberFormatException("For input string: \"" + raw.substring(start, end) + "\"");
             }
         }
-        return parsed;
+        if (negative) {
+            value = -value;
+        }
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("For input string: \"" + raw.substring(start, end) + "\"");
+        }
+        return (int) value;
+    }
+
+    private static double parseDouble(String raw, int start, int end) throws NumberFormatException {
+        // Plain decimals with up to 15 significant digits are exact as long / 10^n, anything else goes through the JDK
+        int i = start;
+        boolean negative = false;
+        if (raw.charAt(i) == '-' || raw.charAt(i) == '+') {
+            negative = raw.charAt(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significant = 0, fraction = -1;
+        boolean digits = false;
+        for (; i < end; i++) {
+            final char c = raw.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits = true;
+                if (mantissa != 0 || c != '0') {
+                    if (++significant > 15) {
+                        return Double.parseDouble(raw.substring(start, end));
+                    }
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (fraction != -1) {
+                    fraction++;
+                }
+            } else if (c == '.' && fraction == -1) {
+                fraction = 0;
+            } else {
+                return Double.parseDouble(raw.substring(start, end));
+            }
+        }
+        if (!digits || fraction >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(raw.substring(start, end));
+        }
+        final double value = fraction > 0 ? mantissa / POWERS_OF_TEN[fraction] : mantissa;
+        return negative ? -value : value;
+    }
+
+    private static String trimRange(String rawRangeSource) {
+        final String source = rawRangeSource.trim();
+        return source.endsWith("-") ? source.substring(0, source.length() - 1) : source;
+    }
+
+    private static int nextSeparator(String source, int separator) {
+        final int next = source.indexOf('-', separator + 1);
+        return next == -1 ? source.length() : next;
+    }
+
+    private static int parseRangeInt(String source, int start, int end) throws NumberFormatException {
+        if (start < end && source.charAt(start) == '^') {
+            return -Math.abs(parseInt(source, start + 1, end));
+        }
+        if (start == end) {
+            throw new NumberFormatException("For input string: \"\"");
+        }
+        return parseInt(source, start, end);
+    }
+
+    private static double parseRangeDouble(String source, int start, int end) throws NumberFormatException {
+        if (start < end && source.charAt(start) == '^') {
+            return -Math.abs(parseRangeDouble(source, start + 1, end));
+        }
+        if (start == end) {
+            throw new NumberFormatException("empty String");
+        }
+        return parseDouble(source, start, end);
+    }
+
+    private static float parseRangeFloat(String source, int start, int end) throws NumberFormatException {
+        if (start < end && source.charAt(start) == '^') {
+            return -Math.abs(parseRangeFloat(source, start + 1, end));
+        }
+        return Float.parseFloat(source.substring(start, end));
     }
 
     public static List<String> parseNewlineStringIntoList(String raw) {
@@ -15,7 +15,6 @@ import com.almuradev.almura.pack.IPackObject;
 import com.almuradev.almura.pack.Pack;
 import com.almuradev.almura.pack.PackUtil;
 import com.almuradev.almura.pack.RotationMeta;
-import com.almuradev.almura.pack.mapper.GameObject;
 import com.almuradev.almura.pack.model.PackModelContainer;
 import com.almuradev.almura.pack.node.BreakNode;
 import com.almuradev.almura.pack.node.CollisionNode;
@@ -23,14 +22,10 @@ import com.almuradev.almura.pack.node.INode;
 import com.almuradev.almura.pack.node.LightNode;
 import com.almuradev.almura.pack.node.RenderNode;
 import com.almuradev.almura.pack.node.RotationNode;
-import com.almuradev.almura.pack.node.ToolsNode;
 import com.almuradev.almura.pack.node.event.AddNodeEvent;
-import com.almuradev.almura.pack.node.property.DropProperty;
-import com.almuradev.almura.pack.node.property.RangeProperty;
 import com.almuradev.almura.pack.renderer.PackIcon;
 import com.almuradev.almura.tabs.Tabs;
 import com.google.common.base.Optional;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import cpw.mods.fml.common.Loader;
 import cpw.mods.fml.common.LoaderState;
@@ -42,11 +37,8 @@ import net.minecraft.block.Block;
 import net.minecraft.block.material.Material;
 import net.minecraft.client.renderer.texture.IIconRegister;
 import net.minecraft.client.renderer.texture.TextureMap;
-import net.minecraft.enchantment.EnchantmentHelper;
 import net.minecraft.entity.EntityLivingBase;
-import net.minecraft.entity.item.EntityItem;
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.stats.StatList;
 import net.minecraft.util.AxisAlignedBB;
@@ -57,9 +49,7 @@ import net.minecraft.world.IBlockAccess;
 import net.minecraft.world.World;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.util.ForgeDirection;
-import net.minecraftforge.event.ForgeEventFactory;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
@@ -102,8 +92,6 @@ public class PackBlock extends Block implements IPackObject, IBlockClipContainer
         setTextureName(Almura.MOD_ID + ":images/" + textureName);
         setHardness(hardness);
         setResistance(resistance);
-        setLightLevel(lightNode.getEmission());
-        setLightOpacity(lightNode.getOpacity());
         if (showInCreativeTab) {
             setCreativeTab(Tabs.getTabByName(creativeTabName));
         }
@@ -163,74 +151,8 @@ public class PackBlock extends Block implements IPackObject, IBlockClipContainer
     @Override
     public void harvestBlock(World world, EntityPlayer player, int x, int y, int z, int metadata) {
         player.addStat(StatList.mineBlockStatArray[getIdFromBlock(this)], 1);
-        final ItemStack held = player.getHeldItem();
-        ToolsNode found = null;
-
-        if (breakNode.isEnabled()) {
-            for (ToolsNode toolsNode : breakNode.getValue()) {
-                if (toolsNode instanceof ToolsNode.OffHand) {
-                    if (held == null) {
-                        found = toolsNode;
-                        break;
-                    }
-                    continue;
-                }
-                if (held != null && toolsNode.getTool().minecraftObject == held.getItem()) {
-                    found = toolsNode;
-                    break;
-                }
-            }
-
-            if (found == null) {
-                found = breakNode.getToolByIdentifier("", "none");
-                if (found == null) {
-                    return;
-                }
-            }
-        } else {
-            return;
-        }
-
-        player.addExhaustion(found.getExhaustionRange().getValueWithinRange());
-        final ArrayList<ItemStack> drops = Lists.newArrayList();
-        for (DropProperty src : found.getValue().getValue()) {
-            final GameObject source = src.getSource();
-            final ItemStack toDrop;
-            if (source.isBlock()) {
-                toDrop = new ItemStack((Block) source.minecraftObject, src.getAmountProperty().getValueWithinRange(), src.getData());
-            } else {
-                toDrop = new ItemStack((Item) source.minecraftObject, src.getAmountProperty().getValueWithinRange(), src.getData());
-            }
-            if (src.getBonusProperty().getSource()) {
-                final double chance = src.getBonusProperty().getValueWithinRange();
-                if (RangeProperty.RANDOM.nextDouble() <= (chance / 100)) {
-                    toDrop.stackSize += src.getBonusProperty().getValueWithinRange();
-                }
-            }
-            drops.add(toDrop);
-        }
         harvesters.set(player);
-        if (!world.isRemote && !world.restoringBlockSnapshots) {
-            final int fortune = EnchantmentHelper.getFortuneModifier(player);
-            final float
-            modchance =
-            ForgeEventFactory.fireBlockHarvesting(drops, world, this, x, y, z, metadata, fortune, 1.0f, false, harvesters.get());
-            for (ItemStack is : drops) {
-                if (RangeProperty.RANDOM.nextFloat() <= modchance && world.getGameRules().getGameRuleBooleanValue("doTileDrops")) {
-                    if (captureDrops.get()) {
-                        capturedDrops.get().add(is);
-                        return;
-                    }
-                    final float f = 0.7F;
-                    final double d0 = (double) (world.rand.nextFloat() * f) + (double) (1.0F - f) * 0.5D;
-                    final double d1 = (double) (world.rand.nextFloat() * f) + (double) (1.0F - f) * 0.5D;
-                    final double d2 = (double) (world.rand.nextFloat() * f) + (double) (1.0F - f) * 0.5D;
-                    final EntityItem item = new EntityItem(world, (double) x + d0, (double) y + d1, (double) z + d2, is);
-                    item.delayBeforeCanPickup = 10;
-                    world.spawnEntityInWorld(item);
-                }
-            }
-        }
+        breakNode.getDropTable().harvest(world, this, x, y, z, metadata, player, captureDrops.get() ? capturedDrops.get() : null);
         harvesters.set(null);
     }
 
@@ -301,7 +223,7 @@ public class PackBlock extends Block implements IPackObject, IBlockClipContainer
         this.modelContainer = Optional.fromNullable(modelContainer);
 
         if (Configuration.IS_CLIENT && this.modelContainer.isPresent()) {
-            if (this.modelContainer.get().getModel().isPresent()) {
+            if (this.modelContainer.get().hasModel()) {
                 fullBlock = false;
             } else {
                 fullBlock = renderNode.isOpaque();
@@ -332,6 +254,9 @@ public class PackBlock extends Block implements IPackObject, IBlockClipContainer
             breakNode = (BreakNode) node;
         } else if (node.getClass() == CollisionNode.class) {
             collisionNode = (CollisionNode) node;
+        } else if (node.getClass() == LightNode.class) {
+            setLightLevel(((LightNode) node).getEmission());
+            setLightOpacity(((LightNode) node).getOpacity());
         }
         MinecraftForge.EVENT_BUS.post(new AddNodeEvent(this, node));
         return node;
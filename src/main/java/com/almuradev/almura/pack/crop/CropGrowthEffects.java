@@ -0,0 +1,126 @@
+/**
+ * This file is part of Almura, All Rights Reserved.
+ *
+ * Copyright (c) 2014 AlmuraDev <http://github.com/AlmuraDev/>
+ */
+package com.almuradev.almura.pack.crop;
+
+import com.almuradev.almura.Almura;
+import com.almuradev.almura.server.network.play.S03CropGrowthEffects;
+import com.google.common.collect.Maps;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.world.ChunkCoordIntPair;
+import net.minecraft.world.World;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Collects the growth particles of a server tick by chunk and sends each player a single {@link S03CropGrowthEffects} with those within
+ * range, instead of a particle packet per crop grown offered to every player.
+ *
+ * Only touched on the server thread.
+ */
+public class CropGrowthEffects {
+
+    // Same range the particle packets were sent within
+    private static final double RANGE = 50D;
+    private static final Map<World, Map<Long, Chunk>> WORLDS = new WeakHashMap<>();
+
+    /**
+     * Queues the growth particles of a crop.
+     *
+     * @param world The server world
+     * @param x The x
+     * @param y The y
+     * @param z The z
+     * @param height The height of the crop, from 0 to 1
+     * @param count The particle count
+     */
+    public static void add(World world, int x, int y, int z, double height, int count) {
+        Map<Long, Chunk> chunks = WORLDS.get(world);
+        if (chunks == null) {
+            chunks = Maps.newLinkedHashMap();
+            WORLDS.put(world, chunks);
+        }
+        final long chunkKey = ChunkCoordIntPair.chunkXZ2Int(x >> 4, z >> 4);
+        Chunk chunk = chunks.get(chunkKey);
+        if (chunk == null) {
+            chunk = new Chunk(x >> 4, z >> 4);
+            chunks.put(chunkKey, chunk);
+        }
+        chunk.add(x & 15, y, z & 15, height, count);
+    }
+
+    /**
+     * Sends the particles queued this tick. Called at the end of the server tick.
+     */
+    public static void flush() {
+        for (Map.Entry<World, Map<Long, Chunk>> entry : WORLDS.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                continue;
+            }
+            for (Object obj : entry.getKey().playerEntities) {
+                if (obj instanceof EntityPlayerMP) {
+                    send((EntityPlayerMP) obj, entry.getValue());
+                }
+            }
+            entry.getValue().clear();
+        }
+    }
+
+    private static void send(EntityPlayerMP player, Map<Long, Chunk> chunks) {
+        S03CropGrowthEffects message = null;
+        for (Chunk chunk : chunks.values()) {
+            // Skip chunks whose closest column is out of range before looking at single crops
+            final double closestX = Math.max(chunk.chunkX << 4, Math.min(player.posX, (chunk.chunkX << 4) + 16));
+            final double closestZ = Math.max(chunk.chunkZ << 4, Math.min(player.posZ, (chunk.chunkZ << 4) + 16));
+            if ((closestX - player.posX) * (closestX - player.posX) + (closestZ - player.posZ) * (closestZ - player.posZ) >= RANGE * RANGE) {
+                continue;
+            }
+            for (int i = 0; i < chunk.size; i++) {
+                final int position = chunk.positions[i];
+                final int x = chunk.chunkX << 4 | position & 15, y = position >> 8, z = chunk.chunkZ << 4 | position >> 4 & 15;
+                final double deltaX = x - player.posX, deltaY = y - player.posY, deltaZ = z - player.posZ;
+                if (deltaX * deltaX + deltaY * deltaY + deltaZ * deltaZ >= RANGE * RANGE) {
+                    continue;
+                }
+                if (message == null) {
+                    message = new S03CropGrowthEffects();
+                }
+                message.add(x, y, z, chunk.heights[i], chunk.counts[i]);
+            }
+        }
+        if (message != null) {
+            Almura.NETWORK_FORGE.sendTo(message, player);
+        }
+    }
+
+    private static final class Chunk {
+
+        private final int chunkX, chunkZ;
+        // Positions packed as y << 8 | z << 4 | x
+        private int[] positions = new int[16];
+        private byte[] heights = new byte[16];
+        private byte[] counts = new byte[16];
+        private int size;
+
+        private Chunk(int chunkX, int chunkZ) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        private void add(int x, int y, int z, double height, int count) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                heights = Arrays.copyOf(heights, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            positions[size] = y << 8 | z << 4 | x;
+            heights[size] = (byte) Math.max(0, Math.min(S03CropGrowthEffects.HEIGHT_SCALE, Math.round(height * S03CropGrowthEffects.HEIGHT_SCALE)));
+            counts[size] = (byte) Math.max(0, Math.min(Byte.MAX_VALUE, count));
+            size++;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * This file is part of Almura, All Rights Reserved.
+ *
+ * Copyright (c) 2014 AlmuraDev <http://github.com/AlmuraDev/>
+ */
+package com.almuradev.almura.pack.crop;
+
+import com.almuradev.almura.Configuration;
+import net.minecraft.block.Block;
+import net.minecraft.util.LongHashMap;
+import net.minecraft.world.ChunkCoordIntPair;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.common.DimensionManager;
+
+import java.util.Arrays;
+
+/**
+ * Grows pack crops in batches instead of through random ticks, enabled by {@link Configuration#CROP_GROWTH_BATCHED}.
+ *
+ * The crops of each chunk come from {@link CropFieldIndex}. Every server tick, chunks are visited in turn until
+ * {@link Configuration#CROP_GROWTH_BUDGET} crops of the world have been rolled, resuming where the last tick stopped. A chunk counts the
+ * ticks it spent in range of a player since its last visit and, with {@link Configuration#CROP_GROWTH_CATCH_UP}, each crop rolls the chance
+ * of growing on any of the random ticks it would have had over them. That keeps today's growth rates whatever the budget, without it each
+ * visit is a single random tick. The new stages of a tick are set in one pass at the end.
+ *
+ * Only touched on the server thread.
+ */
+public class CropGrowthEngine {
+
+    private static final int MAX_SCANS_PER_TICK = 8;
+    // World x, y, z and new stage of each crop grown this tick
+    private static int[] grown = new int[64];
+    private static int grownSize;
+
+    public static void onServerTick() {
+        for (WorldServer world : DimensionManager.getWorlds()) {
+            tick(world);
+        }
+    }
+
+    private static void tick(World world) {
+        final CropFieldIndex.WorldIndex worldIndex = CropFieldIndex.getWorldIndex(world);
+        int scans = 0;
+        for (Object obj : world.activeChunkSet) {
+            final ChunkCoordIntPair coords = (ChunkCoordIntPair) obj;
+            final long chunkKey = ChunkCoordIntPair.chunkXZ2Int(coords.chunkXPos, coords.chunkZPos);
+            CropFieldIndex.ChunkIndex index = (CropFieldIndex.ChunkIndex) worldIndex.chunks.getValueByKey(chunkKey);
+            if (index == null) {
+                if (scans >= MAX_SCANS_PER_TICK || !world.getChunkProvider().chunkExists(coords.chunkXPos, coords.chunkZPos)) {
+                    continue;
+                }
+                index = CropFieldIndex.getChunkIndex(world, coords.chunkXPos, coords.chunkZPos);
+                scans++;
+            }
+            if (index.size() > 0) {
+                index.pendingTicks++;
+            }
+        }
+
+        int budget = Configuration.CROP_GROWTH_BUDGET;
+        boolean refilled = false;
+        while (budget > 0) {
+            CropFieldIndex.ChunkIndex index = worldIndex.sweep.peek();
+            if (index == null) {
+                // Start a new sweep, at most once a tick so a small field is not rolled twice
+                if (refilled || worldIndex.cropChunks.isEmpty()) {
+                    break;
+                }
+                worldIndex.sweep.addAll(worldIndex.cropChunks);
+                refilled = true;
+                continue;
+            }
+            if (!isLoaded(worldIndex.chunks, index) || index.size() == 0) {
+                worldIndex.sweep.poll();
+                index.cursor = 0;
+                continue;
+            }
+            if (index.cursor == 0) {
+                if (index.pendingTicks == 0) {
+                    // Out of range of every player since the last visit
+                    worldIndex.sweep.poll();
+                    continue;
+                }
+                index.sweepTicks = index.pendingTicks;
+                index.pendingTicks = 0;
+            }
+
+            budget -= grow(world, index, budget);
+            if (index.cursor >= index.size()) {
+                index.cursor = 0;
+                worldIndex.sweep.poll();
+            }
+        }
+
+        apply(world);
+    }
+
+    private static int grow(World world, CropFieldIndex.ChunkIndex index, int budget) {
+        final Chunk chunk = world.getChunkFromChunkCoords(index.chunkX, index.chunkZ);
+        final int ticks = Configuration.CROP_GROWTH_CATCH_UP ? index.sweepTicks : 1;
+        final double tickChance = Configuration.CROP_GROWTH_CATCH_UP ? PackCrops.RANDOM_TICK_CHANCE : 1;
+        int rolled = 0;
+        // Stage callbacks may change blocks and so the positions, the size is read every time
+        while (rolled < budget && index.cursor < index.size()) {
+            final int position = index.getPosition(index.cursor++);
+            final int localX = position & 15, localZ = position >> 4 & 15, y = position >> 8;
+            final Block block = chunk.getBlock(localX, y, localZ);
+            rolled++;
+            if (!(block instanceof PackCrops)) {
+                continue;
+            }
+            final int x = index.chunkX << 4 | localX, z = index.chunkZ << 4 | localZ;
+            final int metadata = chunk.getBlockMetadata(localX, y, localZ);
+            if (((PackCrops) block).grow(world, x, y, z, metadata, world.rand, ticks, tickChance)) {
+                if (grownSize + 4 > grown.length) {
+                    grown = Arrays.copyOf(grown, grown.length * 2);
+                }
+                grown[grownSize++] = x;
+                grown[grownSize++] = y;
+                grown[grownSize++] = z;
+                grown[grownSize++] = metadata + 1;
+            }
+        }
+        return rolled;
+    }
+
+    /**
+     * Sets the new stages, the same as setBlockMetadataWithNotify with flag 3 does for each.
+     */
+    private static void apply(World world) {
+        for (int i = 0; i < grownSize; i += 4) {
+            final int x = grown[i], y = grown[i + 1], z = grown[i + 2], metadata = grown[i + 3];
+            final Chunk chunk = world.getChunkFromBlockCoords(x, z);
+            final Block block = chunk.getBlock(x & 15, y, z & 15);
+            // Skip crops changed since they were rolled
+            if (!(block instanceof PackCrops) || chunk.getBlockMetadata(x & 15, y, z & 15) != metadata - 1) {
+                continue;
+            }
+            if (chunk.setBlockMetadata(x & 15, y, z & 15, metadata)) {
+                world.markBlockForUpdate(x, y, z);
+                world.notifyBlockChange(x, y, z, block);
+            }
+        }
+        grownSize = 0;
+    }
+
+    private static boolean isLoaded(LongHashMap chunks, CropFieldIndex.ChunkIndex index) {
+        return chunks.getValueByKey(ChunkCoordIntPair.chunkXZ2Int(index.chunkX, index.chunkZ)) == index;
+    }
+}
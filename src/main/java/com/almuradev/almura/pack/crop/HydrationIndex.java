@@ -0,0 +1,165 @@
+/**
+ * This file is part of Almura, All Rights Reserved.
+ *
+ * Copyright (c) 2014 AlmuraDev <http://github.com/AlmuraDev/>
+ */
+package com.almuradev.almura.pack.crop;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.material.Material;
+import net.minecraft.util.LongHashMap;
+import net.minecraft.world.ChunkCoordIntPair;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.EmptyChunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Index of the water within the loaded chunks of a server world, so farmland hydration checks test a few bitmasks instead of reading
+ * every block around them.
+ *
+ * Each chunk keeps, per height, a row of 16 bits for every z telling which x hold a block of water material. Chunks are scanned the first
+ * time a lookup needs them and dropped when they unload, changes made through the chunk afterwards are applied by MixinChunk.
+ *
+ * Only touched on the server thread.
+ */
+public class HydrationIndex {
+
+    private static final Map<World, LongHashMap> WORLDS = new WeakHashMap<>();
+
+    /**
+     * Checks for water within the radius on x and z, at the height given and the one above.
+     *
+     * @param world The server world
+     * @param x The x
+     * @param y The y
+     * @param z The z
+     * @param radius The radius
+     * @return True if there is water within range
+     */
+    public static boolean isWaterWithin(World world, int x, int y, int z, int radius) {
+        for (int chunkX = (x - radius) >> 4; chunkX <= (x + radius) >> 4; chunkX++) {
+            for (int chunkZ = (z - radius) >> 4; chunkZ <= (z + radius) >> 4; chunkZ++) {
+                final ChunkIndex index = getChunkIndex(world, chunkX, chunkZ);
+                if (index.count == 0) {
+                    continue;
+                }
+
+                final int minX = Math.max(x - radius, chunkX << 4) & 15, maxX = Math.min(x + radius, (chunkX << 4) + 15) & 15;
+                final int minZ = Math.max(z - radius, chunkZ << 4) & 15, maxZ = Math.min(z + radius, (chunkZ << 4) + 15) & 15;
+                final int mask = ((1 << maxX - minX + 1) - 1) << minX;
+                for (int layerY = Math.max(0, y); layerY <= Math.min(255, y + 1); layerY++) {
+                    final short[] rows = index.layers[layerY];
+                    if (rows == null) {
+                        continue;
+                    }
+                    for (int columnZ = minZ; columnZ <= maxZ; columnZ++) {
+                        if ((rows[columnZ] & mask) != 0) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Applies a change made within a chunk. Chunks not indexed yet are ignored, they are scanned when first needed.
+     *
+     * @param chunk The chunk
+     * @param x The x within the chunk
+     * @param y The y
+     * @param z The z within the chunk
+     * @param block The block now at the position
+     */
+    public static void onBlockChanged(Chunk chunk, int x, int y, int z, Block block) {
+        if (chunk.worldObj == null || chunk.worldObj.isRemote) {
+            return;
+        }
+        final LongHashMap chunks = WORLDS.get(chunk.worldObj);
+        if (chunks == null) {
+            return;
+        }
+        final ChunkIndex index = (ChunkIndex) chunks.getValueByKey(ChunkCoordIntPair.chunkXZ2Int(chunk.xPosition, chunk.zPosition));
+        if (index != null) {
+            index.set(x, y, z, block.getMaterial() == Material.water);
+        }
+    }
+
+    public static void onChunkUnload(Chunk chunk) {
+        final LongHashMap chunks = WORLDS.get(chunk.worldObj);
+        if (chunks != null) {
+            chunks.remove(ChunkCoordIntPair.chunkXZ2Int(chunk.xPosition, chunk.zPosition));
+        }
+    }
+
+    public static void onWorldUnload(World world) {
+        WORLDS.remove(world);
+    }
+
+    private static ChunkIndex getChunkIndex(World world, int chunkX, int chunkZ) {
+        LongHashMap chunks = WORLDS.get(world);
+        if (chunks == null) {
+            chunks = new LongHashMap();
+            WORLDS.put(world, chunks);
+        }
+        final long chunkKey = ChunkCoordIntPair.chunkXZ2Int(chunkX, chunkZ);
+        ChunkIndex index = (ChunkIndex) chunks.getValueByKey(chunkKey);
+        if (index == null) {
+            // Loads the chunk like the block reads of the old scan did
+            final Chunk chunk = world.getChunkFromChunkCoords(chunkX, chunkZ);
+            index = new ChunkIndex(chunk);
+            if (!(chunk instanceof EmptyChunk)) {
+                chunks.add(chunkKey, index);
+            }
+        }
+        return index;
+    }
+
+    private static final class ChunkIndex {
+
+        // Rows of x bits by z, per height, null for heights without water
+        private final short[][] layers = new short[256][];
+        private int count;
+
+        private ChunkIndex(Chunk chunk) {
+            for (ExtendedBlockStorage storage : chunk.getBlockStorageArray()) {
+                if (storage == null || storage.isEmpty()) {
+                    continue;
+                }
+                for (int y = 0; y < 16; y++) {
+                    for (int z = 0; z < 16; z++) {
+                        for (int x = 0; x < 16; x++) {
+                            if (storage.getBlockByExtId(x, y, z).getMaterial() == Material.water) {
+                                set(x, storage.getYLocation() + y, z, true);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        private void set(int x, int y, int z, boolean water) {
+            short[] rows = layers[y];
+            final boolean wasWater = rows != null && (rows[z] & 1 << x) != 0;
+            if (water == wasWater) {
+                return;
+            }
+            if (water) {
+                if (rows == null) {
+                    rows = new short[16];
+                    layers[y] = rows;
+                }
+                rows[z] |= 1 << x;
+                count++;
+            } else {
+                rows[z] &= ~(1 << x);
+                count--;
+            }
+        }
+    }
+}
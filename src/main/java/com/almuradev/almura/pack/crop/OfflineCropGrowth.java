@@ -0,0 +1,127 @@
+/**
+ * This file is part of Almura, All Rights Reserved.
+ *
+ * Copyright (c) 2014 AlmuraDev <http://github.com/AlmuraDev/>
+ */
+package com.almuradev.almura.pack.crop;
+
+import com.almuradev.almura.Configuration;
+import com.google.common.collect.Maps;
+import net.minecraft.block.Block;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Grows pack crops for the time their chunk spent unloaded. The world time is saved with every chunk and when the chunk loads again each
+ * crop is fast-forwarded by {@link PackCrops#catchUp}, before the chunk is added to the world.
+ *
+ * Growth evenness needs the neighbouring chunks, which may not be loaded, so it is approximated within the chunk: a crop ends at most one
+ * stage above the lowest crop of the same type around it.
+ */
+public class OfflineCropGrowth {
+
+    private static final String TAG_LAST_SIMULATED = "AlmuraCropTime";
+    // Same area as the growth evenness check
+    private static final int RADIUS = 4;
+
+    public static void onChunkSave(Chunk chunk, NBTTagCompound data) {
+        data.setLong(TAG_LAST_SIMULATED, chunk.worldObj.getTotalWorldTime());
+    }
+
+    public static void onChunkLoad(Chunk chunk, NBTTagCompound data) {
+        if (!Configuration.CROP_GROWTH_OFFLINE || !data.hasKey(TAG_LAST_SIMULATED)) {
+            return;
+        }
+        final long ticks = chunk.worldObj.getTotalWorldTime() - data.getLong(TAG_LAST_SIMULATED);
+        if (ticks <= 0) {
+            return;
+        }
+
+        final Random random = ThreadLocalRandom.current();
+        // Stages before and after catching up, by crop type and height
+        final Map<Block, byte[][]> before = Maps.newHashMap();
+        final Map<Block, byte[][]> after = Maps.newHashMap();
+        for (ExtendedBlockStorage storage : chunk.getBlockStorageArray()) {
+            // Without random ticks the section holds no crops, unless they are grown in batches
+            if (storage == null || storage.isEmpty() || !Configuration.CROP_GROWTH_BATCHED && !storage.getNeedsRandomTick()) {
+                continue;
+            }
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        final Block block = storage.getBlockByExtId(x, y, z);
+                        if (!(block instanceof PackCrops)) {
+                            continue;
+                        }
+                        final int worldY = storage.getYLocation() + y;
+                        final int metadata = storage.getExtBlockMetadata(x, y, z);
+                        final int blockLight = storage.getExtBlocklightValue(x, y, z);
+                        final int skyLight = chunk.worldObj.provider.hasNoSky ? 0 : storage.getExtSkylightValue(x, y, z);
+                        getLayer(before, block, worldY)[z << 4 | x] = (byte) metadata;
+                        final int stage = ((PackCrops) block).catchUp(metadata, blockLight, skyLight, ticks, random);
+                        getLayer(after, block, worldY)[z << 4 | x] = (byte) stage;
+                    }
+                }
+            }
+        }
+
+        for (Map.Entry<Block, byte[][]> entry : after.entrySet()) {
+            final byte[][] beforeLayers = before.get(entry.getKey());
+            final byte[][] afterLayers = entry.getValue();
+            for (int y = 0; y < 256; y++) {
+                if (afterLayers[y] == null) {
+                    continue;
+                }
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        final int stage = afterLayers[y][z << 4 | x];
+                        final int original = beforeLayers[y][z << 4 | x];
+                        if (stage == original) {
+                            continue;
+                        }
+                        final int clamped = Math.max(original, Math.min(stage, getLowestAround(afterLayers, x, y, z) + 1));
+                        if (clamped != original) {
+                            final ExtendedBlockStorage storage = chunk.getBlockStorageArray()[y >> 4];
+                            storage.setExtBlockMetadata(x, y & 15, z, clamped);
+                            chunk.setChunkModified();
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static byte[] getLayer(Map<Block, byte[][]> layersByBlock, Block block, int y) {
+        byte[][] layers = layersByBlock.get(block);
+        if (layers == null) {
+            layers = new byte[256][];
+            layersByBlock.put(block, layers);
+        }
+        if (layers[y] == null) {
+            layers[y] = new byte[256];
+            Arrays.fill(layers[y], Byte.MAX_VALUE);
+        }
+        return layers[y];
+    }
+
+    private static int getLowestAround(byte[][] layers, int x, int y, int z) {
+        int lowest = Byte.MAX_VALUE;
+        for (int layerY = y; layerY <= Math.min(y + 1, 255); layerY++) {
+            if (layers[layerY] == null) {
+                continue;
+            }
+            for (int columnZ = Math.max(0, z - RADIUS); columnZ <= Math.min(15, z + RADIUS); columnZ++) {
+                for (int columnX = Math.max(0, x - RADIUS); columnX <= Math.min(15, x + RADIUS); columnX++) {
+                    lowest = Math.min(lowest, layers[layerY][columnZ << 4 | columnX]);
+                }
+            }
+        }
+        return lowest;
+    }
+}
@@ -6,27 +6,26 @@
 package com.almuradev.almura.pack.crop;
 
 import com.almuradev.almura.Almura;
+import com.almuradev.almura.Configuration;
+import com.almuradev.almura.pack.DropTable;
 import com.almuradev.almura.pack.IBlockClipContainer;
 import com.almuradev.almura.pack.IBlockModelContainer;
 import com.almuradev.almura.pack.INodeContainer;
 import com.almuradev.almura.pack.IPackObject;
 import com.almuradev.almura.pack.Pack;
-import com.almuradev.almura.pack.mapper.GameObject;
 import com.almuradev.almura.pack.model.PackModelContainer;
 import com.almuradev.almura.pack.node.BreakNode;
 import com.almuradev.almura.pack.node.FertilizerNode;
 import com.almuradev.almura.pack.node.GrowthNode;
 import com.almuradev.almura.pack.node.INode;
 import com.almuradev.almura.pack.node.LightNode;
-import com.almuradev.almura.pack.node.ToolsNode;
 import com.almuradev.almura.pack.node.event.AddNodeEvent;
-import com.almuradev.almura.pack.node.property.DropProperty;
-import com.almuradev.almura.pack.node.property.GameObjectProperty;
-import com.almuradev.almura.pack.node.property.RangeProperty;
+import com.almuradev.almura.pack.node.property.DoubleRange;
 import com.almuradev.almura.pack.renderer.PackIcon;
 import com.google.common.base.Optional;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import cpw.mods.fml.common.Loader;
 import cpw.mods.fml.common.LoaderState;
 import cpw.mods.fml.relauncher.Side;
@@ -36,12 +35,8 @@ import net.minecraft.block.Block;
 import net.minecraft.block.BlockCrops;
 import net.minecraft.client.renderer.texture.IIconRegister;
 import net.minecraft.client.renderer.texture.TextureMap;
-import net.minecraft.enchantment.EnchantmentHelper;
-import net.minecraft.entity.item.EntityItem;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.init.Blocks;
-import net.minecraft.item.Item;
-import net.minecraft.item.ItemBlock;
 import net.minecraft.item.ItemStack;
 import net.minecraft.stats.StatList;
 import net.minecraft.util.AxisAlignedBB;
@@ -49,24 +44,40 @@ import net.minecraft.util.IIcon;
 import net.minecraft.world.EnumSkyBlock;
 import net.minecraft.world.IBlockAccess;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
 import net.minecraftforge.common.MinecraftForge;
-import net.minecraftforge.event.ForgeEventFactory;
 import net.minecraftforge.event.entity.player.BonemealEvent;
 
-import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 
 public class PackCrops extends BlockCrops implements IPackObject, IBlockClipContainer, IBlockModelContainer, INodeContainer {
 
+    // Vanilla picks 3 positions in each 16x16x16 section of an active chunk every tick
+    static final double RANDOM_TICK_CHANCE = 3d / 4096;
+    // Sky light drops by 11 at night
+    private static final int NIGHT_SKY_LIGHT_SUBTRACTED = 11;
+    private static final DoubleRange NO_GROWTH = new DoubleRange(0, 0);
     public static int renderId;
     private final Pack pack;
     private final String identifier;
     private final String textureName;
     private final ConcurrentMap<Class<? extends INode<?>>, INode<?>> nodes = Maps.newConcurrentMap();
     private final Map<Integer, Stage> stages;
+    // Stages by metadata and the stage values read on hot paths, built by compileStages
+    private final Stage[] stageTable = new Stage[16];
+    private final int[] lightValues = new int[16];
+    private final int[] lightOpacities = new int[16];
+    private final int[] minLightLevels = new int[16];
+    private final int[] maxLightLevels = new int[16];
+    private final DoubleRange[] growthChances = new DoubleRange[16];
+    private int finalStage = -1;
 
     public PackCrops(Pack pack, String identifier, String textureName, int levelRequired, Map<Integer, Stage> stages) {
         this.pack = pack;
@@ -75,31 +86,67 @@ public class PackCrops extends BlockCrops implements IPackObject, IBlockClipCont
         this.textureName = textureName;
         setUnlocalizedName(pack.getName() + "\\" + identifier);
         setTextureName(Almura.MOD_ID + ":images/" + textureName);
-        setTickRandomly(true);
+        // Grown by CropGrowthEngine instead when batched
+        setTickRandomly(!Configuration.CROP_GROWTH_BATCHED);
+    }
+
+    /**
+     * Rebuilds the stage table from the stages and their nodes. Called once the stages are created and whenever a stage gains a light or growth node.
+     */
+    public void compileStages() {
+        for (int metadata = 0; metadata < 16; metadata++) {
+            final Stage stage = stages.get(metadata);
+            final LightNode lightNode = stage == null ? null : stage.getNode(LightNode.class);
+            final GrowthNode growthNode = stage == null ? null : stage.getNode(GrowthNode.class);
+            lightValues[metadata] = lightNode == null ? 0 : (int) lightNode.getEmission();
+            lightOpacities[metadata] = lightNode == null ? 0 : lightNode.getOpacity();
+            minLightLevels[metadata] = lightNode == null ? 0 : lightNode.getValue().getMin();
+            maxLightLevels[metadata] = lightNode == null ? 0 : lightNode.getValue().getMax();
+            growthChances[metadata] = growthNode == null ? NO_GROWTH : growthNode.getValue().asDoubleRange();
+            stageTable[metadata] = stage;
+        }
+        finalStage = stages.size() - 1;
     }
 
     @Override
     public void updateTick(World world, int x, int y, int z, Random random) {
         final int metadata = world.getBlockMetadata(x, y, z);
+        if (grow(world, x, y, z, metadata, random, 1, 1) && !world.isRemote) {
+            world.setBlockMetadataWithNotify(x, y, z, metadata + 1, 3);
+        }
+    }
 
-        if (metadata >= stages.size() - 1) {
-            return;
+    /**
+     * Rolls growth of the crop to the next stage, running the stage callbacks. Setting the new stage is left to the caller.
+     *
+     * @param world The world
+     * @param x The x
+     * @param y The y
+     * @param z The z
+     * @param metadata The current stage
+     * @param random The random
+     * @param ticks The number of growth attempts to roll at once
+     * @param tickChance The chance each attempt is made at all, 1 for a random tick
+     * @return True if the crop grew
+     */
+    boolean grow(World world, int x, int y, int z, int metadata, Random random, int ticks, double tickChance) {
+        if (metadata >= finalStage) {
+            return false;
         }
 
-        final Stage stage = stages.get(metadata);
+        final Stage stage = getStage(metadata);
 
         if (stage == null) {
-            return;
+            return false;
         }
 
-        boolean canGrow = isGrowthEven(world, x, y, z);
+        boolean canGrow = world.isRemote ? isGrowthEven(world, x, y, z) : CropFieldIndex.isGrowthEven(world, this, x, y, z, metadata);
         if (!canGrow) {
-            return;
+            return false;
         }
 
-        final LightNode lightNode = stage.getNode(LightNode.class);
-        final int minLightLevel = lightNode.getValue().getMin();
-        final int maxLightLevel = lightNode.getValue().getMax();
+        final int minLightLevel = minLightLevels[metadata];
+        final int maxLightLevel = maxLightLevels[metadata];
         final int areaBlockLight = world.getSavedLightValue(EnumSkyBlock.Block, x, y, z);
         final int worldLight = world.getSavedLightValue(EnumSkyBlock.Sky, x, y, z) - world.skylightSubtracted;
         boolean enoughLight = false;
@@ -111,18 +158,66 @@ public class PackCrops extends BlockCrops implements IPackObject, IBlockClipCont
 
         if (enoughLight) {
             stage.onTick(world, x, y, z, random);
-            final double
-                    chance =
-                    stage.getNode(GrowthNode.class).getValue().getValueWithinRange();
-            if (random.nextDouble() <= (chance / 100)) {
+            final double chance = getGrowthChance(metadata, random);
+            // Chance of at least one of the attempts growing, a single random tick rolls the growth chance as is
+            final double growthChance = ticks == 1 && tickChance == 1 ? chance / 100
+                    : 1 - Math.pow(1 - tickChance * Math.min(chance / 100, 1), ticks);
+            if (random.nextDouble() <= growthChance) {
                 stage.onGrowth(world, x, y, z, random);
-                final Stage newStage = stages.get(metadata + 1);
-                newStage.onGrown(world, x, y, z, random);
-                if (!world.isRemote) {
-                    world.setBlockMetadataWithNotify(x, y, z, metadata + 1, 3);
+                final Stage newStage = getStage(metadata + 1);
+                if (newStage != null) {
+                    newStage.onGrown(world, x, y, z, random);
                 }
+                return true;
             }
         }
+        return false;
+    }
+
+    /**
+     * Fast-forwards growth over ticks the crop spent unloaded. The random ticks until each stage grows are sampled in one go from the
+     * growth chance and the share of the day the light suits the stage. Stage callbacks are not run.
+     *
+     * @param metadata The current stage
+     * @param blockLight The block light at the crop
+     * @param skyLight The sky light at the crop
+     * @param ticks The ticks to fast-forward
+     * @param random The random
+     * @return The new stage
+     */
+    int catchUp(int metadata, int blockLight, int skyLight, long ticks, Random random) {
+        while (ticks > 0 && metadata < finalStage) {
+            if (getStage(metadata) == null) {
+                break;
+            }
+
+            final int minLightLevel = minLightLevels[metadata];
+            final int maxLightLevel = maxLightLevels[metadata];
+            double litShare = 0;
+            if (blockLight >= minLightLevel && blockLight <= maxLightLevel) {
+                litShare = 1;
+            } else {
+                // Half the day at full sky light and half at night
+                if (skyLight >= minLightLevel && skyLight <= maxLightLevel) {
+                    litShare += 0.5;
+                }
+                if (skyLight - NIGHT_SKY_LIGHT_SUBTRACTED >= minLightLevel && skyLight - NIGHT_SKY_LIGHT_SUBTRACTED <= maxLightLevel) {
+                    litShare += 0.5;
+                }
+            }
+
+            final double chance = RANDOM_TICK_CHANCE * Math.min(getGrowthChance(metadata, random) / 100, 1) * litShare;
+            if (chance <= 0) {
+                break;
+            }
+            // Geometric number of ticks until the stage grows
+            ticks -= Math.max(1, (long) Math.ceil(Math.log(1 - random.nextDouble()) / Math.log(1 - chance)));
+            if (ticks < 0) {
+                break;
+            }
+            metadata++;
+        }
+        return metadata;
     }
 
     @Override
@@ -130,7 +225,7 @@ public class PackCrops extends BlockCrops implements IPackObject, IBlockClipCont
         // Check if the block can stay and we are on the server
         if (!this.canBlockStay(world, x, y, z) && !world.isRemote) {
             final int metadata = world.getBlockMetadata(x, y, z);
-            final Stage stage = stages.get(metadata);
+            final Stage stage = getStage(metadata);
             if (stage == null) {
                 // Bad crop somehow (bad stages...), break it anyhow
                 world.setBlock(x, y, z, Blocks.air, 0, 2);
@@ -149,7 +244,7 @@ public class PackCrops extends BlockCrops implements IPackObject, IBlockClipCont
                 return;
             }
 
-            final ToolsNode found = breakNode.getToolByIdentifier("", "none");
+            final DropTable.Entry found = breakNode.getDropTable().getOffHand();
             if (found == null) {
                 // If there is no drops we still want to break the crop
                 world.setBlock(x, y, z, Blocks.air, 0, 2);
@@ -161,32 +256,8 @@ public class PackCrops extends BlockCrops implements IPackObject, IBlockClipCont
 
             // Only do drops if we aren't restoring snapshots and game rules allow tile drops; prevents dupes
             if (!world.restoringBlockSnapshots && world.getGameRules().getGameRuleBooleanValue("doTileDrops")) {
-                final ArrayList<ItemStack> drops = Lists.newArrayList();
-                for (DropProperty src : found.getValue().getValue()) {
-                    final GameObject source = src.getSource();
-                    final ItemStack toDrop;
-                    if (source.isBlock()) {
-                        toDrop = new ItemStack((Block) source.minecraftObject, src.getAmountProperty().getValueWithinRange(), src.getData());
-                    } else {
-                        toDrop = new ItemStack((Item) source.minecraftObject, src.getAmountProperty().getValueWithinRange(), src.getData());
-                    }
-                    if (src.getBonusProperty().getSource()) {
-                        final double chance = src.getBonusProperty().getValueWithinRange();
-                        if (RangeProperty.RANDOM.nextDouble() <= (chance / 100)) {
-                            toDrop.stackSize += src.getBonusProperty().getValueWithinRange();
-                        }
-                    }
-                    drops.add(toDrop);
-                }
-
-                for (ItemStack is : drops) {
-                    final float f = 0.7F;
-                    final double d0 = (double) (world.rand.nextFloat() * f) + (double) (1.0F - f) * 0.5D;
-                    final double d1 = (double) (world.rand.nextFloat() * f) + (double) (1.0F - f) * 0.5D;
-                    final double d2 = (double) (world.rand.nextFloat() * f) + (double) (1.0F - f) * 0.5D;
-                    final EntityItem item = new EntityItem(world, (double) x + d0, (double) y + d1, (double) z + d2, is);
-                    item.delayBeforeCanPickup = 10;
-                    world.spawnEntityInWorld(item);
+                for (ItemStack is : found.rollDrops(world.rand)) {
+                    DropTable.spawn(world, x, y, z, is);
                 }
             }
         }
@@ -196,46 +267,111 @@ public class PackCrops extends BlockCrops implements IPackObject, IBlockClipCont
     public boolean onBlockActivated(World world, int x, int y, int z, EntityPlayer player, int p_149727_6_, float p_149727_7_, float p_149727_8_,
             float p_149727_9_) {
         final int metadata = world.getBlockMetadata(x, y, z);
-        if (metadata < stages.size() - 1) {
-            final Stage stage = stages.get(world.getBlockMetadata(x, y, z));
-            if (stage != null) {
-                final FertilizerNode fertilizerNode = stage.getNode(FertilizerNode.class);
-                if (fertilizerNode != null) {
-                    for (GameObjectProperty prop : fertilizerNode.getValue()) {
-                        final ItemStack heldStack = player.getHeldItem();
-
-                        if (heldStack != null && heldStack.getItem() != null) {
-                            final Item heldItem = heldStack.getItem();
-
-                            final Object minecraftObject = heldItem instanceof ItemBlock ? ((ItemBlock) heldItem).blockInstance : heldItem;
-
-                            if (minecraftObject == prop.getSource().minecraftObject && heldStack.getMetadata() == prop.getSource().data) {
-                                // TODO Is the bonemeal event meant to run on the client?
-                                final BonemealEvent event = new BonemealEvent(player, world, this, x, y, z);
-
-                                if (MinecraftForge.EVENT_BUS.post(event)) {
-                                    if (!world.isRemote && !player.capabilities.isCreativeMode) {
-                                        --heldStack.stackSize;
-                                    }
-
-                                    stage.onGrown(world, x, y, z, RangeProperty.RANDOM);
-                                    final Stage newStage = stages.get(metadata + 1);
-                                    newStage.onGrown(world, x, y, z, RangeProperty.RANDOM);
-                                    if (!world.isRemote) {
-                                        world.setBlockMetadataWithNotify(x, y, z, metadata + 1, 3);
-                                    }
-                                    return true;
-                                }
-                            }
-                        }
-                    }
-                }
+        if (fertilize(world, x, y, z, metadata, player, player.getHeldItem())) {
+            if (!world.isRemote) {
+                world.setBlockMetadataWithNotify(x, y, z, metadata + 1, 3);
             }
+            return true;
         }
         return super.onBlockActivated(world, x, y, z, player, p_149727_6_, p_149727_7_, p_149727_8_,
                 p_149727_9_);
     }
 
+    /**
+     * Fertilizes the contiguous field of this crop on the level of the clicked crop, one stage per crop and one fertilizer per crop, in a
+     * single pass. Stops at {@link Configuration#CROP_BULK_FERTILIZE_LIMIT} crops or when the held stack runs out.
+     *
+     * @param world The server world
+     * @param x The x of the clicked crop
+     * @param y The y of the clicked crop
+     * @param z The z of the clicked crop
+     * @param player The player
+     * @return The amount of crops fertilized
+     */
+    public int fertilizeField(World world, int x, int y, int z, EntityPlayer player) {
+        final ItemStack heldStack = player.getHeldItem();
+        final int limit = Configuration.CROP_BULK_FERTILIZE_LIMIT;
+        if (world.isRemote || limit <= 0 || heldStack == null) {
+            return 0;
+        }
+        // Only search the field if the item fertilizes the clicked crop
+        final int clickedMetadata = world.getBlockMetadata(x, y, z);
+        final Stage clickedStage = clickedMetadata < finalStage ? getStage(clickedMetadata) : null;
+        final FertilizerNode clickedFertilizer = clickedStage == null ? null : clickedStage.getNode(FertilizerNode.class);
+        if (clickedFertilizer == null || !clickedFertilizer.isFertilizer(heldStack)) {
+            return 0;
+        }
+
+        // Columns visited, packed as x << 32 | z, the search never leaves +- limit of the clicked crop
+        final Set<Long> visited = Sets.newHashSet();
+        final Deque<int[]> open = new ArrayDeque<>();
+        final List<int[]> grown = Lists.newArrayList();
+        open.add(new int[]{x, z});
+        visited.add(pack(x, z));
+        // Crops at their final stage still join the field, bound how many are looked at
+        int budget = limit * 4;
+        while (!open.isEmpty() && grown.size() < limit && budget-- > 0) {
+            if (heldStack.stackSize <= 0 && !player.capabilities.isCreativeMode) {
+                break;
+            }
+            final int[] position = open.poll();
+            final int metadata = world.getBlockMetadata(position[0], y, position[1]);
+            if (fertilize(world, position[0], y, position[1], metadata, player, heldStack)) {
+                grown.add(new int[]{position[0], position[1], metadata + 1});
+            }
+            for (int side = 0; side < 4; side++) {
+                final int nextX = position[0] + (side == 0 ? 1 : side == 1 ? -1 : 0);
+                final int nextZ = position[1] + (side == 2 ? 1 : side == 3 ? -1 : 0);
+                if (Math.abs(nextX - x) > limit || Math.abs(nextZ - z) > limit || !world.blockExists(nextX, y, nextZ)
+                        || world.getBlock(nextX, y, nextZ) != this || !visited.add(pack(nextX, nextZ))) {
+                    continue;
+                }
+                open.add(new int[]{nextX, nextZ});
+            }
+        }
+
+        // Same as setBlockMetadataWithNotify with flag 3, the player manager sends the changes of a chunk together
+        for (int[] crop : grown) {
+            final Chunk chunk = world.getChunkFromBlockCoords(crop[0], crop[1]);
+            if (chunk.setBlockMetadata(crop[0] & 15, y, crop[1] & 15, crop[2])) {
+                world.markBlockForUpdate(crop[0], y, crop[1]);
+                world.notifyBlockChange(crop[0], y, crop[1], this);
+            }
+        }
+        return grown.size();
+    }
+
+    /**
+     * Fertilizes the crop if the stack is a fertilizer of its stage, using up one of it. The caller sets the next stage.
+     */
+    private boolean fertilize(World world, int x, int y, int z, int metadata, EntityPlayer player, ItemStack heldStack) {
+        if (metadata >= finalStage) {
+            return false;
+        }
+        final Stage stage = getStage(metadata);
+        if (stage == null) {
+            return false;
+        }
+        final FertilizerNode fertilizerNode = stage.getNode(FertilizerNode.class);
+        if (fertilizerNode == null || !fertilizerNode.isFertilizer(heldStack)) {
+            return false;
+        }
+        // TODO Is the bonemeal event meant to run on the client?
+        if (!MinecraftForge.EVENT_BUS.post(new BonemealEvent(player, world, this, x, y, z))) {
+            return false;
+        }
+        if (!world.isRemote && !player.capabilities.isCreativeMode) {
+            --heldStack.stackSize;
+        }
+        stage.onGrown(world, x, y, z, world.rand);
+        getStage(metadata + 1).onGrown(world, x, y, z, world.rand);
+        return true;
+    }
+
+    private static long pack(int x, int z) {
+        return (long) x << 32 | z & 0xFFFFFFFFL;
+    }
+
     private boolean isGrowthEven(World world, int x, int y, int z) { // Scans a 4 x 4 block radius
         final int currentMetadata = world.getBlockMetadata(x, y, z);
         for (int l = x - 4; l <= x + 4; ++l) {
@@ -269,7 +405,7 @@ public class PackCrops extends BlockCrops implements IPackObject, IBlockClipCont
         // Check if the block can stay and we are on the server
         if (!world.isRemote) {
             final int metadata = world.getBlockMetadata(x, y, z);
-            final Stage stage = stages.get(metadata);
+            final Stage stage = getStage(metadata);
             if (stage == null) {
                 // Bad crop somehow (bad stages...), break it anyhow
                 world.setBlock(x, y, z, Blocks.air, 0, 2);
@@ -288,7 +424,7 @@ public class PackCrops extends BlockCrops implements IPackObject, IBlockClipCont
                 return;
             }
 
-            final ToolsNode found = breakNode.getToolByIdentifier("", "none");
+            final DropTable.Entry found = breakNode.getDropTable().getOffHand();
             if (found == null) {
                 // If there is no drops we still want to break the crop
                 world.setBlock(x, y, z, Blocks.air, 0, 2);
@@ -300,32 +436,8 @@ public class PackCrops extends BlockCrops implements IPackObject, IBlockClipCont
 
             // Only do drops if we aren't restoring snapshots and game rules allow tile drops; prevents dupes
             if (!world.restoringBlockSnapshots && world.getGameRules().getGameRuleBooleanValue("doTileDrops")) {
-                final ArrayList<ItemStack> drops = Lists.newArrayList();
-                for (DropProperty src : found.getValue().getValue()) {
-                    final GameObject source = src.getSource();
-                    final ItemStack toDrop;
-                    if (source.isBlock()) {
-                        toDrop = new ItemStack((Block) source.minecraftObject, src.getAmountProperty().getValueWithinRange(), src.getData());
-                    } else {
-                        toDrop = new ItemStack((Item) source.minecraftObject, src.getAmountProperty().getValueWithinRange(), src.getData());
-                    }
-                    if (src.getBonusProperty().getSource()) {
-                        final double chance = src.getBonusProperty().getValueWithinRange();
-                        if (RangeProperty.RANDOM.nextDouble() <= (chance / 100)) {
-                            toDrop.stackSize += src.getBonusProperty().getValueWithinRange();
-                        }
-                    }
-                    drops.add(toDrop);
-                }
-
-                for (ItemStack is : drops) {
-                    final float f = 0.7F;
-                    final double d0 = (double) (world.rand.nextFloat() * f) + (double) (1.0F - f) * 0.5D;
-                    final double d1 = (double) (world.rand.nextFloat() * f) + (double) (1.0F - f) * 0.5D;
-                    final double d2 = (double) (world.rand.nextFloat() * f) + (double) (1.0F - f) * 0.5D;
-                    final EntityItem item = new EntityItem(world, (double) x + d0, (double) y + d1, (double) z + d2, is);
-                    item.delayBeforeCanPickup = 10;
-                    world.spawnEntityInWorld(item);
+                for (ItemStack is : found.rollDrops(world.rand)) {
+                    DropTable.spawn(world, x, y, z, is);
                 }
             }
         }
@@ -333,13 +445,13 @@ public class PackCrops extends BlockCrops implements IPackObject, IBlockClipCont
 
     @Override
     public int getLightOpacity(IBlockAccess world, int x, int y, int z) {
-        final Stage stage = stages.get(world.getBlockMetadata(x, y, z));
-        return stage != null ? stage.getLightOpacity(world, x, y, z) : super.getLightOpacity(world, x, y, z);
+        final int metadata = world.getBlockMetadata(x, y, z);
+        return getStage(metadata) != null ? lightOpacities[metadata] : super.getLightOpacity(world, x, y, z);
     }
 
     @Override
     public int getExpDrop(IBlockAccess world, int metadata, int fortune) {
-        final Stage stage = stages.get(metadata);
+        final Stage stage = getStage(metadata);
         return stage != null ? stage.getExpDrop(world, metadata, fortune) : super.getExpDrop(world, metadata, fortune);
     }
 
@@ -358,14 +470,14 @@ public class PackCrops extends BlockCrops implements IPackObject, IBlockClipCont
 
     @Override
     public int getLightValue(IBlockAccess world, int x, int y, int z) {
-        final Stage stage = stages.get(world.getBlockMetadata(x, y, z));
-        return stage != null ? stage.getLightValue(world, x, y, z) : super.getLightValue(world, x, y, z);
+        final int metadata = world.getBlockMetadata(x, y, z);
+        return getStage(metadata) != null ? lightValues[metadata] : super.getLightValue(world, x, y, z);
     }
 
     @Override
     @SideOnly(Side.CLIENT)
     public IIcon getIcon(int side, int type) {
-        final Stage stage = stages.get(type);
+        final Stage stage = getStage(type);
 
         return stage != null ? stage.getIcon(blockIcon, side, type) : blockIcon;
     }
@@ -374,7 +486,7 @@ public class PackCrops extends BlockCrops implements IPackObject, IBlockClipCont
     @Override
     public void harvestBlock(World world, EntityPlayer player, int x, int y, int z, int metadata) {
         player.addStat(StatList.mineBlockStatArray[getIdFromBlock(this)], 1);
-        final Stage stage = stages.get(metadata);
+        final Stage stage = getStage(metadata);
         if (stage == null) {
             return;
         }
@@ -383,74 +495,8 @@ public class PackCrops extends BlockCrops implements IPackObject, IBlockClipCont
             return;
         }
 
-        final ItemStack held = player.getHeldItem();
-        ToolsNode found = null;
-
-        if (breakNode.isEnabled()) {
-            for (ToolsNode toolsNode : breakNode.getValue()) {
-                if (toolsNode instanceof ToolsNode.OffHand) {
-                    if (held == null) {
-                        found = toolsNode;
-                        break;
-                    }
-                    continue;
-                }
-                if (held != null && toolsNode.getTool().minecraftObject == held.getItem()) {
-                    found = toolsNode;
-                    break;
-                }
-            }
-
-            if (found == null) {
-                found = breakNode.getToolByIdentifier("", "none");
-                if (found == null) {
-                    return;
-                }
-            }
-        } else {
-            return;
-        }
-
-        player.addExhaustion(found.getExhaustionRange().getValueWithinRange());
-        final ArrayList<ItemStack> drops = Lists.newArrayList();
-        for (DropProperty src : found.getValue().getValue()) {
-            final GameObject source = src.getSource();
-            final ItemStack toDrop;
-            if (source.isBlock()) {
-                toDrop = new ItemStack((Block) source.minecraftObject, src.getAmountProperty().getValueWithinRange(), src.getData());
-            } else {
-                toDrop = new ItemStack((Item) source.minecraftObject, src.getAmountProperty().getValueWithinRange(), src.getData());
-            }
-            if (src.getBonusProperty().getSource()) {
-                final double chance = src.getBonusProperty().getValueWithinRange();
-                if (RangeProperty.RANDOM.nextDouble() <= (chance / 100)) {
-                    toDrop.stackSize += src.getBonusProperty().getValueWithinRange();
-                }
-            }
-            drops.add(toDrop);
-        }
         harvesters.set(player);
-        if (!world.isRemote && !world.restoringBlockSnapshots) {
-            final int fortune = EnchantmentHelper.getFortuneModifier(player);
-            final float
-                    modchance =
-                    ForgeEventFactory.fireBlockHarvesting(drops, world, this, x, y, z, metadata, fortune, 1.0f, false, harvesters.get());
-            for (ItemStack is : drops) {
-                if (RangeProperty.RANDOM.nextFloat() <= modchance && world.getGameRules().getGameRuleBooleanValue("doTileDrops")) {
-                    if (captureDrops.get()) {
-                        capturedDrops.get().add(is);
-                        return;
-                    }
-                    final float f = 0.7F;
-                    final double d0 = (double) (world.rand.nextFloat() * f) + (double) (1.0F - f) * 0.5D;
-                    final double d1 = (double) (world.rand.nextFloat() * f) + (double) (1.0F - f) * 0.5D;
-                    final double d2 = (double) (world.rand.nextFloat() * f) + (double) (1.0F - f) * 0.5D;
-                    final EntityItem item = new EntityItem(world, (double) x + d0, (double) y + d1, (double) z + d2, is);
-                    item.delayBeforeCanPickup = 10;
-                    world.spawnEntityInWorld(item);
-                }
-            }
-        }
+        breakNode.getDropTable().harvest(world, this, x, y, z, metadata, player, captureDrops.get() ? capturedDrops.get() : null);
         harvesters.set(null);
     }
 
@@ -459,7 +505,7 @@ public class PackCrops extends BlockCrops implements IPackObject, IBlockClipCont
     public AxisAlignedBB getCollisionBoundingBoxFromPool(World world, int x, int y, int z) {
         final AxisAlignedBB vanillaBB = super.getCollisionBoundingBoxFromPool(world, x, y, z);
         final int metadata = world.getBlockMetadata(x, y, z);
-        final Stage stage = stages.get(metadata);
+        final Stage stage = getStage(metadata);
         if (stage != null) {
             final Optional<PackModelContainer> modelContainer = stage.getModelContainer(world, x, y, z, metadata);
             if (modelContainer.isPresent()) {
@@ -475,7 +521,7 @@ public class PackCrops extends BlockCrops implements IPackObject, IBlockClipCont
     public AxisAlignedBB getSelectedBoundingBoxFromPool(World world, int x, int y, int z) {
         final AxisAlignedBB vanillaBB = super.getSelectedBoundingBoxFromPool(world, x, y, z);
         final int metadata = world.getBlockMetadata(x, y, z);
-        final Stage stage = stages.get(metadata);
+        final Stage stage = getStage(metadata);
         if (stage != null) {
             final Optional<PackModelContainer> modelContainer = stage.getModelContainer(world, x, y, z, metadata);
             if (modelContainer.isPresent()) {
@@ -498,13 +544,13 @@ public class PackCrops extends BlockCrops implements IPackObject, IBlockClipCont
 
     @Override
     public ClippedIcon[] getClipIcons() {
-        final Stage stage = stages.get(0);
+        final Stage stage = getStage(0);
         return stage == null ? null : stage.getClipIcons();
     }
 
     @Override
     public ClippedIcon[] getClipIcons(IBlockAccess access, int x, int y, int z, int metadata) {
-        final Stage stage = stages.get(metadata);
+        final Stage stage = getStage(metadata);
         if (stage != null) {
             return stage.getClipIcons(access, x, y, z, metadata);
         }
@@ -513,13 +559,13 @@ public class PackCrops extends BlockCrops implements IPackObject, IBlockClipCont
 
     @Override
     public Optional<PackModelContainer> getModelContainer(IBlockAccess access, int x, int y, int z, int metadata) {
-        final Stage stage = stages.get(metadata);
+        final Stage stage = getStage(metadata);
         return stage == null ? Optional.<PackModelContainer>absent() : stage.getModelContainer(access, x, y, z, metadata);
     }
 
     @Override
     public Optional<PackModelContainer> getModelContainer() {
-        final Stage stage = stages.get(0);
+        final Stage stage = getStage(0);
         return stage == null ? Optional.<PackModelContainer>absent() : stage.getModelContainer();
     }
 
@@ -563,6 +609,14 @@ public class PackCrops extends BlockCrops implements IPackObject, IBlockClipCont
         return getNode(clazz) != null;
     }
 
+    private Stage getStage(int metadata) {
+        return metadata >= 0 && metadata < 16 ? stageTable[metadata] : null;
+    }
+
+    private double getGrowthChance(int metadata, Random random) {
+        return growthChances[metadata].sampleDouble(random);
+    }
+
     public Map<Integer, Stage> getStages() {
         return Collections.unmodifiableMap(stages);
     }
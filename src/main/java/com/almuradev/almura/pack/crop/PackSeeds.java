@@ -121,6 +121,10 @@ public class PackSeeds extends ItemSeeds implements IPackObject, IClipContainer,
         }
     }
 
+    public String getTextureName() {
+        return textureName;
+    }
+
     @Override
     public Pack getPack() {
         return pack;
@@ -23,8 +23,6 @@ import cpw.mods.fml.relauncher.Side;
 import cpw.mods.fml.relauncher.SideOnly;
 import net.malisis.core.renderer.icon.ClippedIcon;
 import net.minecraft.client.renderer.texture.IIconRegister;
-import net.minecraft.network.play.server.S2APacketParticles;
-import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.IIcon;
 import net.minecraft.world.IBlockAccess;
 import net.minecraft.world.World;
@@ -151,15 +149,7 @@ public class Stage implements IState, IPackObject, IBlockClipContainer, IBlockMo
      */
     public void onGrown(World world, int x, int y, int z, Random random) {
         if (!world.isRemote) {
-            float d0 = 0.02f;
-            float d1 = 0.02f;
-            float d2 = 0.02f;
-
-            MinecraftServer.getServer().getConfigurationManager().sendToAllNear(x, y, z, 50D, world.provider.dimensionId,
-                    new S2APacketParticles("happyVillager", (x + random.nextFloat()),
-                            (float) (y + random.nextFloat() * block
-                                    .getBlockBoundsMaxY()),
-                            (z + random.nextFloat()), d0, d1, d2, 1, id));
+            CropGrowthEffects.add(world, x, y, z, block.getBlockBoundsMaxY(), id);
         }
     }
 
@@ -193,6 +183,9 @@ public class Stage implements IState, IPackObject, IBlockClipContainer, IBlockMo
     public <T extends INode<?>> T addNode(T node) {
         nodes.put((Class<? extends INode<?>>) node.getClass(), node);
         MinecraftForge.EVENT_BUS.post(new AddNodeEvent(this, node));
+        if (node instanceof LightNode || node instanceof GrowthNode) {
+            block.compileStages();
+        }
         return node;
     }
 
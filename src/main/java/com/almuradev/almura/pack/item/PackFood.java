@@ -106,7 +106,7 @@ public class PackFood extends ItemFood implements IPackObject, IClipContainer, I
     public ItemStack onItemUseFinish(ItemStack stack, World world, EntityPlayer player) {
         final ItemStack result = super.onItemUseFinish(stack, world, player);
         if (!world.isRemote) {
-            final float change = consumption.getHealthRange().getValueWithinRange();
+            final float change = consumption.getHealthRange().sampleFloat(world.rand);
             if (change < 0) {
                 player.attackEntityFrom(FOOD_SOURCE, Math.abs(change));
             } else if (change > 0) {
@@ -118,12 +118,16 @@ public class PackFood extends ItemFood implements IPackObject, IClipContainer, I
 
     @Override
     public int getHealAmount(ItemStack stack) {
-        return consumption.getFoodRange().getValueWithinRange();
+        return consumption.getFoodRange().asIntRange().sampleInt();
     }
 
     @Override
     public float getSaturationModifier(ItemStack stack) {
-        return consumption.getSaturationRange().getValueWithinRange();
+        return consumption.getSaturationRange().asFloatRange().sampleFloat();
+    }
+
+    public String getTextureName() {
+        return textureName;
     }
 
     @Override
@@ -93,6 +93,10 @@ public class PackItem extends Item implements IPackObject, IClipContainer, IMode
         clippedIcons = PackUtil.generateClippedIconsFromCoordinates(itemIcon, textureName, textureCoordinates);
     }
 
+    public String getTextureName() {
+        return textureName;
+    }
+
     @Override
     public Pack getPack() {
         return pack;
@@ -8,12 +8,16 @@ package com.almuradev.almura.pack.model;
 import net.malisis.core.renderer.RenderParameters;
 import net.malisis.core.renderer.element.Face;
 import net.malisis.core.renderer.element.Vertex;
+import net.minecraftforge.common.util.ForgeDirection;
 
 import java.util.List;
 
 public class PackFace extends Face {
 
+    private static final double EPSILON = 1.0E-4;
     private final int textureId;
+    private ForgeDirection flushSide = ForgeDirection.UNKNOWN;
+    private boolean coversSide;
 
     public PackFace(int textureId, Vertex[] vertexes, RenderParameters params) {
         super(vertexes, params);
@@ -33,14 +37,66 @@ public class PackFace extends Face {
     public PackFace(PackFace face) {
         super(face);
         this.textureId = face.getTextureId();
+        this.flushSide = face.flushSide;
+        this.coversSide = face.coversSide;
     }
 
     public PackFace(PackFace face, RenderParameters params) {
         super(face, params);
         this.textureId = face.getTextureId();
+        this.flushSide = face.flushSide;
+        this.coversSide = face.coversSide;
     }
 
     public int getTextureId() {
         return textureId;
     }
+
+    /**
+     * Gets the side of the block this face lies flat against.
+     *
+     * @return The side or {@link ForgeDirection#UNKNOWN} if the face is not on a block boundary
+     */
+    public ForgeDirection getFlushSide() {
+        return flushSide;
+    }
+
+    /**
+     * Gets if this face covers the whole of its flush side.
+     *
+     * @return True if covered
+     */
+    public boolean coversSide() {
+        return coversSide;
+    }
+
+    /**
+     * Finds the side of the block this face lies flat against from the current vertices. A face only counts as flush when it also faces
+     * out of that side, going by the direction deducted from its vertices, as a face on the boundary facing into the block stays visible
+     * whatever the neighbour is.
+     */
+    public void findFlushSide() {
+        flushSide = ForgeDirection.UNKNOWN;
+        coversSide = false;
+        final ForgeDirection side = getParameters().direction.get();
+        if (side == null || side == ForgeDirection.UNKNOWN) {
+            return;
+        }
+        final double plane = side.offsetX + side.offsetY + side.offsetZ > 0 ? 1 : 0;
+        // Corners of the side touched, a full side is a quad on all four
+        int corners = 0;
+        for (Vertex vertex : getVertexes()) {
+            final double depth = side.offsetX != 0 ? vertex.getX() : side.offsetY != 0 ? vertex.getY() : vertex.getZ();
+            if (Math.abs(depth - plane) > EPSILON) {
+                return;
+            }
+            final double u = side.offsetX != 0 ? vertex.getY() : vertex.getX();
+            final double v = side.offsetZ != 0 ? vertex.getY() : vertex.getZ();
+            if ((Math.abs(u) <= EPSILON || Math.abs(u - 1) <= EPSILON) && (Math.abs(v) <= EPSILON || Math.abs(v - 1) <= EPSILON)) {
+                corners |= 1 << ((u > 0.5 ? 1 : 0) | (v > 0.5 ? 2 : 0));
+            }
+        }
+        flushSide = side;
+        coversSide = getVertexes().length == 4 && corners == 15;
+    }
 }
@@ -5,18 +5,35 @@
  */
 package com.almuradev.almura.pack.model;
 
+import com.almuradev.almura.Almura;
+import com.almuradev.almura.Configuration;
+import com.almuradev.almura.pack.PackCreator;
+import com.almuradev.almura.pack.RotationMeta;
+import com.almuradev.almura.pack.node.RotationNode;
+import com.almuradev.almura.pack.node.property.RotationProperty;
+import com.almuradev.almura.pack.renderer.PackDisplayLists;
 import com.google.common.base.Optional;
+import com.google.common.collect.Maps;
 import cpw.mods.fml.relauncher.Side;
 import cpw.mods.fml.relauncher.SideOnly;
+import net.malisis.core.renderer.element.Face;
 import net.malisis.core.renderer.element.Shape;
+import net.malisis.core.renderer.element.Vertex;
+import net.minecraftforge.common.util.ForgeDirection;
+import ninja.leaping.configurate.ConfigurationNode;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 public class PackModelContainer {
 
     private final String identifier;
     private final PackPhysics physics;
-    private Optional<IModel> model;
+    private Optional<IModel> model = Optional.absent();
+    private ConfigurationNode shapeReader;
+    // Rotated copies of the shape per rotation node, indexed by rotation id
+    private final Map<RotationNode, PackShape[]> rotatedShapes = Maps.newIdentityHashMap();
 
     @SuppressWarnings("unchecked")
     public PackModelContainer(String identifier, PackPhysics physics) {
@@ -34,12 +51,84 @@ public class PackModelContainer {
 
     @SideOnly(Side.CLIENT)
     public Optional<IModel> getModel() {
+        if (shapeReader != null) {
+            final ConfigurationNode reader = shapeReader;
+            shapeReader = null;
+            try {
+                PackCreator.loadShapeIntoModelContainer(this, identifier, reader);
+            } catch (IOException e) {
+                if (Configuration.DEBUG_ALL || Configuration.DEBUG_PACKS) {
+                    Almura.LOGGER.error("Failed to load shape for model [" + identifier + "].", e);
+                } else {
+                    Almura.LOGGER.warn("Failed to load shape for model [" + identifier + "].");
+                }
+            }
+        }
         return model;
     }
 
     @SideOnly(Side.CLIENT)
     public void setModel(IModel model) {
+        // Baked lists only go stale when a built model is replaced, not when a deferred shape is first built
+        if (this.model.isPresent()) {
+            PackDisplayLists.invalidate();
+        }
         this.model = Optional.fromNullable(model);
+        rotatedShapes.clear();
+    }
+
+    /**
+     * Gets the shape rotated as the node rotates the rotation. Each rotation is baked into its own copy of the shape the first time it is
+     * asked for, with the rotation applied to the vertices and the face parameters deducted again, so rendering it only resets its state.
+     *
+     * @param node The rotation node of the block
+     * @param rotation The rotation
+     * @return The rotated shape or absent if there is no shape
+     */
+    @SideOnly(Side.CLIENT)
+    public Optional<PackShape> getRotatedShape(RotationNode node, RotationMeta.Rotation rotation) {
+        final Optional<IModel> model = getModel();
+        if (!model.isPresent() || !(model.get() instanceof PackShape)) {
+            return Optional.absent();
+        }
+        PackShape[] shapes = rotatedShapes.get(node);
+        if (shapes == null) {
+            shapes = new PackShape[RotationMeta.Rotation.values().length];
+            rotatedShapes.put(node, shapes);
+        }
+        PackShape rotated = shapes[rotation.getId()];
+        if (rotated == null) {
+            final PackShape shape = (PackShape) model.get();
+            shape.resetState();
+            rotated = new PackShape(shape);
+            rotate(rotated, node, rotation);
+            rotated.applyMatrix();
+            rotated.deductParameters();
+            rotated.storeState();
+            rotated.findFlushFaces();
+            shapes[rotation.getId()] = rotated;
+        }
+        return Optional.of(rotated);
+    }
+
+    /**
+     * Defers building the shape until {@link #getModel()} is first called.
+     *
+     * @param reader The model's document
+     */
+    @SideOnly(Side.CLIENT)
+    public void setShapeReader(ConfigurationNode reader) {
+        this.shapeReader = reader;
+    }
+
+    /**
+     * Gets if this container has a shape, without building it if it is deferred.
+     *
+     * @return True if a model is present or will be built
+     */
+    @SideOnly(Side.CLIENT)
+    public boolean hasModel() {
+        return shapeReader != null || model.isPresent();
     }
 
     @Override
@@ -57,9 +146,85 @@ public class PackModelContainer {
         return "PackModel {identifier= " + identifier + "}";
     }
 
+    @SideOnly(Side.CLIENT)
+    private static void rotate(IModel model, RotationNode node, RotationMeta.Rotation rotation) {
+        final RotationProperty property = node.getRotationProperty(rotation);
+        if (property == null) {
+            switch (rotation) {
+                case NORTH:
+                    if (node.isDefaultRotate()) {
+                        model.rotate(180f, 0, -1, 0);
+                    }
+                    break;
+                case SOUTH:
+                    break;
+                case WEST:
+                    if (node.isDefaultRotate()) {
+                        model.rotate(90f, 0, -1, 0);
+                    }
+                    break;
+                case EAST:
+                    if (node.isDefaultRotate()) {
+                        model.rotate(90f, 0, 1, 0);
+                    }
+                    break;
+                case DOWN_NORTH:
+                    if (node.isDefaultRotate()) {
+                        model.rotate(180f, 0, -1, 0);
+                    }
+                    if (node.isDefaultMirrorRotate()) {
+                        model.rotate(90f, -1, 0, 0);
+                    }
+                    break;
+                case DOWN_SOUTH:
+                    break;
+                case DOWN_WEST:
+                    if (node.isDefaultRotate()) {
+                        model.rotate(90f, 0, -1, 0);
+                    }
+                    if (node.isDefaultMirrorRotate()) {
+                        model.rotate(180f, -1, 0, 0);
+                    }
+                    break;
+                case DOWN_EAST:
+                    if (node.isDefaultRotate()) {
+                        model.rotate(90f, 0, 1, 0);
+                    }
+                    if (node.isDefaultMirrorRotate()) {
+                        model.rotate(180f, -1, 0, 0);
+                    }
+                    break;
+                case UP_NORTH:
+                    if (node.isDefaultRotate()) {
+                        model.rotate(180f, 0, -1, 0);
+                    }
+                    break;
+                case UP_SOUTH:
+                    break;
+                case UP_WEST:
+                    if (node.isDefaultRotate()) {
+                        model.rotate(90f, 0, -1, 0);
+                    }
+                    break;
+                case UP_EAST:
+                    if (node.isDefaultRotate()) {
+                        model.rotate(90f, 0, 1, 0);
+                    }
+                    break;
+            }
+        } else {
+            model.rotate(property.getAngle(), property.getX().getId(), property.getY().getId(), property.getZ().getId());
+        }
+    }
+
     @SideOnly(Side.CLIENT)
     public static final class PackShape extends Shape implements IModel {
 
+        // Sides covered whole by a face, one bit per ForgeDirection ordinal
+        private int coveredSides;
+        // Scale fitting the shape within a block, 0 until first asked for
+        private float unitScale;
+
         public PackShape(PackFace... faces) {
             super(faces);
         }
@@ -75,6 +240,49 @@ public class PackModelContainer {
                 faces[i] = new PackFace(shapeFaces[i]);
             }
             copyMatrix(s);
+            this.coveredSides = s.coveredSides;
+        }
+
+        /**
+         * Finds the faces lying flat against a side of the block, from the current vertices. Called once the shape's state is stored.
+         */
+        public void findFlushFaces() {
+            coveredSides = 0;
+            for (Face face : faces) {
+                // Mirror faces keep the parameters of the face they copy, so their direction points the wrong way
+                if (face instanceof PackFace && !(face instanceof PackMirrorFace)) {
+                    final PackFace packFace = (PackFace) face;
+                    packFace.findFlushSide();
+                    if (packFace.coversSide()) {
+                        coveredSides |= 1 << packFace.getFlushSide().ordinal();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Gets the scale fitting the shape within a block, measured from its stored state the first time.
+         *
+         * @return The scale
+         */
+        public float getUnitScale() {
+            if (unitScale == 0) {
+                resetState();
+                double max = Double.MIN_VALUE;
+                for (Face face : getFaces()) {
+                    for (Vertex vertex : getVertexes(face)) {
+                        max = Math.max(vertex.getX(), max);
+                        max = Math.max(vertex.getY(), max);
+                        max = Math.max(vertex.getZ(), max);
+                    }
+                }
+                unitScale = (float) (1 / max);
+            }
+            return unitScale;
+        }
+
+        public boolean coversSide(ForgeDirection side) {
+            return (coveredSides & 1 << side.ordinal()) != 0;
         }
     }
 
@@ -5,15 +5,43 @@
  */
 package com.almuradev.almura.pack.node;
 
+import com.almuradev.almura.pack.DropTable;
+import com.google.common.collect.Maps;
+import net.minecraft.item.ItemStack;
+
+import java.util.Map;
 import java.util.Set;
 
 public class BreakNode extends ToggleableNode<Set<ToolsNode>> {
 
     private final Set<ToolsNode> value;
+    // Tools by the object the held item is compared against and by modid and identifier
+    private final Map<Object, ToolsNode> toolsByObject = Maps.newIdentityHashMap();
+    private final Map<String, ToolsNode> toolsByIdentifier = Maps.newHashMap();
+    private final ToolsNode offHand;
+    private final DropTable dropTable;
 
     public BreakNode(boolean isEnabled, Set<ToolsNode> value) {
         super(isEnabled);
         this.value = value;
+        ToolsNode offHand = null;
+        for (ToolsNode toolsNode : value) {
+            if (toolsNode instanceof ToolsNode.OffHand) {
+                if (offHand == null) {
+                    offHand = toolsNode;
+                }
+                continue;
+            }
+            if (!toolsByObject.containsKey(toolsNode.getTool().minecraftObject)) {
+                toolsByObject.put(toolsNode.getTool().minecraftObject, toolsNode);
+            }
+            final String key = toolsNode.getTool().modid + ":" + toolsNode.getTool().remapped;
+            if (!toolsByIdentifier.containsKey(key)) {
+                toolsByIdentifier.put(key, toolsNode);
+            }
+        }
+        this.offHand = offHand;
+        this.dropTable = new DropTable(this);
     }
 
     @Override
@@ -21,19 +49,34 @@ public class BreakNode extends ToggleableNode<Set<ToolsNode>> {
         return value;
     }
 
-    public ToolsNode getToolByIdentifier(String modid, String identifier) {
-        for (ToolsNode toolNode : value) {
-            if (identifier.equals("none")) {
-                if (toolNode instanceof ToolsNode.OffHand) {
-                    return toolNode;
-                } else {
-                    continue;
-                }
-            }
-            if (toolNode.getTool().modid.equals(modid) && toolNode.getTool().remapped.equals(identifier)) {
-                return toolNode;
+    public DropTable getDropTable() {
+        return dropTable;
+    }
+
+    /**
+     * Gets the tool matching the held item, falling back to breaking without a tool.
+     *
+     * @param held The held item or null
+     * @return The tool or null if nothing matches
+     */
+    public ToolsNode getTool(ItemStack held) {
+        if (held != null) {
+            final ToolsNode toolsNode = toolsByObject.get(held.getItem());
+            if (toolsNode != null) {
+                return toolsNode;
             }
         }
-        return null;
+        return offHand;
+    }
+
+    public ToolsNode getOffHand() {
+        return offHand;
+    }
+
+    public ToolsNode getToolByIdentifier(String modid, String identifier) {
+        if (identifier.equals("none")) {
+            return offHand;
+        }
+        return toolsByIdentifier.get(modid + ":" + identifier);
     }
 }
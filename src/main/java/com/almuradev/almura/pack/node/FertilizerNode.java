@@ -6,20 +6,56 @@
 package com.almuradev.almura.pack.node;
 
 import com.almuradev.almura.pack.node.property.GameObjectProperty;
+import com.google.common.collect.Maps;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemBlock;
+import net.minecraft.item.ItemStack;
 
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Set;
 
 public class FertilizerNode extends ToggleableNode<Set<GameObjectProperty>> {
 
     private final Set<GameObjectProperty> value;
+    // Data values accepted by block or item
+    private final Map<Object, int[]> dataBySource = Maps.newIdentityHashMap();
 
     public FertilizerNode(boolean isEnabled, Set<GameObjectProperty> value) {
         super(isEnabled);
         this.value = value;
+        for (GameObjectProperty prop : value) {
+            final int[] data = dataBySource.get(prop.getSource().minecraftObject);
+            final int[] added = data == null ? new int[1] : Arrays.copyOf(data, data.length + 1);
+            added[added.length - 1] = prop.getSource().data;
+            dataBySource.put(prop.getSource().minecraftObject, added);
+        }
     }
 
     @Override
     public Set<GameObjectProperty> getValue() {
         return value;
     }
+
+    /**
+     * Checks if the stack is one of the fertilizers. Blocks are matched by their block rather than their item.
+     *
+     * @param stack The stack or null
+     * @return True if a fertilizer
+     */
+    public boolean isFertilizer(ItemStack stack) {
+        if (stack == null || stack.getItem() == null) {
+            return false;
+        }
+        final Item item = stack.getItem();
+        final int[] data = dataBySource.get(item instanceof ItemBlock ? ((ItemBlock) item).blockInstance : item);
+        if (data != null) {
+            for (int value : data) {
+                if (value == stack.getMetadata()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 }
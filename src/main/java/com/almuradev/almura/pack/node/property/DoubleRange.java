@@ -0,0 +1,54 @@
+/**
+ * This file is part of Almura, All Rights Reserved.
+ *
+ * Copyright (c) 2014 AlmuraDev <http://github.com/AlmuraDev/>
+ */
+package com.almuradev.almura.pack.node.property;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An inclusive range of double values, kept unboxed.
+ */
+public final class DoubleRange {
+
+    private final double min, max;
+
+    public DoubleRange(double min, double max) {
+        this.min = min;
+        this.max = max;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Samples a value within the range, max excluded unless equal to the min.
+     *
+     * @param random The random
+     * @return The value
+     */
+    public double sampleDouble(Random random) {
+        return max <= min ? min : min + (max - min) * random.nextDouble();
+    }
+
+    /**
+     * Samples a value within the range with the random of the calling thread.
+     *
+     * @return The value
+     */
+    public double sampleDouble() {
+        return sampleDouble(ThreadLocalRandom.current());
+    }
+
+    @Override
+    public String toString() {
+        return "DoubleRange {min= " + min + ", max= " + max + "}";
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * This file is part of Almura, All Rights Reserved.
+ *
+ * Copyright (c) 2014 AlmuraDev <http://github.com/AlmuraDev/>
+ */
+package com.almuradev.almura.pack.node.property;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An inclusive range of float values, kept unboxed.
+ */
+public final class FloatRange {
+
+    private final float min, max;
+
+    public FloatRange(float min, float max) {
+        this.min = min;
+        this.max = max;
+    }
+
+    public float getMin() {
+        return min;
+    }
+
+    public float getMax() {
+        return max;
+    }
+
+    /**
+     * Samples a value within the range, max excluded unless equal to the min.
+     *
+     * @param random The random
+     * @return The value
+     */
+    public float sampleFloat(Random random) {
+        return max <= min ? min : min + (max - min) * random.nextFloat();
+    }
+
+    /**
+     * Samples a value within the range with the random of the calling thread.
+     *
+     * @return The value
+     */
+    public float sampleFloat() {
+        return sampleFloat(ThreadLocalRandom.current());
+    }
+
+    @Override
+    public String toString() {
+        return "FloatRange {min= " + min + ", max= " + max + "}";
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * This file is part of Almura, All Rights Reserved.
+ *
+ * Copyright (c) 2014 AlmuraDev <http://github.com/AlmuraDev/>
+ */
+package com.almuradev.almura.pack.node.property;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An inclusive range of int values, kept unboxed.
+ */
+public final class IntRange {
+
+    private final int min, max;
+
+    public IntRange(int min, int max) {
+        this.min = min;
+        this.max = max;
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * Samples a value within the range, max included.
+     *
+     * @param random The random
+     * @return The value
+     */
+    public int sampleInt(Random random) {
+        return max <= min ? min : min + random.nextInt(max - min + 1);
+    }
+
+    /**
+     * Samples a value within the range with the random of the calling thread.
+     *
+     * @return The value
+     */
+    public int sampleInt() {
+        return sampleInt(ThreadLocalRandom.current());
+    }
+
+    @Override
+    public String toString() {
+        return "IntRange {min= " + min + ", max= " + max + "}";
+    }
+}
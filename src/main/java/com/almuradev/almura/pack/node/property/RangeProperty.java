@@ -8,26 +8,30 @@ package com.almuradev.almura.pack.node.property;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class RangeProperty<T extends Number> implements IProperty<Boolean> {
 
-    public static final Random RANDOM = new Random();
     private final Class<T> typeClass;
     private final boolean enabled;
     private final T min, max;
+    // Unboxed copies sampled on hot paths
+    private final IntRange intRange;
+    private final DoubleRange doubleRange;
+    private final FloatRange floatRange;
 
     public RangeProperty(Class<T> typeClass, boolean enabled, T min, T max) {
         this.typeClass = typeClass;
         this.enabled = enabled;
         this.max = max;
         this.min = min;
+        intRange = new IntRange(min.intValue(), max.intValue());
+        doubleRange = new DoubleRange(min.doubleValue(), max.doubleValue());
+        floatRange = new FloatRange(min.floatValue(), max.floatValue());
     }
 
     public RangeProperty(Class<T> typeClass, boolean enabled, Pair<T, T> range) {
-        this.typeClass = typeClass;
-        this.enabled = enabled;
-        min = range.getLeft();
-        max = range.getRight();
+        this(typeClass, enabled, range.getLeft(), range.getRight());
     }
 
     @Override
@@ -43,15 +47,44 @@ public class RangeProperty<T extends Number> implements IProperty<Boolean> {
         return max;
     }
 
+    public IntRange asIntRange() {
+        return intRange;
+    }
+
+    public DoubleRange asDoubleRange() {
+        return doubleRange;
+    }
+
+    public FloatRange asFloatRange() {
+        return floatRange;
+    }
+
+    public int sampleInt(Random random) {
+        return intRange.sampleInt(random);
+    }
+
+    public double sampleDouble(Random random) {
+        return doubleRange.sampleDouble(random);
+    }
+
+    public float sampleFloat(Random random) {
+        return floatRange.sampleFloat(random);
+    }
+
+    /**
+     * Samples a boxed value of the range's type. Prefer the primitive sample methods.
+     *
+     * @return The value or null for an unknown type
+     */
     @SuppressWarnings("unchecked")
     public T getValueWithinRange() {
+        final Random random = ThreadLocalRandom.current();
         if (typeClass == Float.class) {
-            return (T) new Float(min.floatValue() + (max.floatValue() - min.floatValue()) * RANDOM.nextFloat());
+            return (T) Float.valueOf(floatRange.sampleFloat(random));
         } else if (typeClass == Double.class) {
-            return (T) new Double(Math.random() < 0.5 ? ((1 - Math.random()) * (max.doubleValue() - min.doubleValue()) + min.doubleValue())
-                    : (Math.random() * (max.doubleValue() - min.doubleValue()) + min.doubleValue()));
+            return (T) Double.valueOf(doubleRange.sampleDouble(random));
         } else if (typeClass == Integer.class) {
-            return (T) new Integer(RANDOM.nextInt((max.intValue() - min.intValue()) + 1) + min.intValue());
+            return (T) Integer.valueOf(intRange.sampleInt(random));
         } else {
             return null;
         }
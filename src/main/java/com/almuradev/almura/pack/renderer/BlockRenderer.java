@@ -6,6 +6,7 @@
 package com.almuradev.almura.pack.renderer;
 
 import com.almuradev.almura.Almura;
+import com.almuradev.almura.Configuration;
 import com.almuradev.almura.pack.IBlockClipContainer;
 import com.almuradev.almura.pack.IBlockModelContainer;
 import com.almuradev.almura.pack.IClipContainer;
@@ -17,7 +18,6 @@ import com.almuradev.almura.pack.model.PackFace;
 import com.almuradev.almura.pack.model.PackModelContainer;
 import com.almuradev.almura.pack.node.LightNode;
 import com.almuradev.almura.pack.node.RotationNode;
-import com.almuradev.almura.pack.node.property.RotationProperty;
 import com.google.common.base.Optional;
 import net.malisis.core.renderer.MalisisRenderer;
 import net.malisis.core.renderer.RenderParameters;
@@ -29,6 +29,7 @@ import net.malisis.core.renderer.element.shape.Cube;
 import net.malisis.core.renderer.icon.ClippedIcon;
 import net.minecraft.block.Block;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.RenderBlocks;
 import net.minecraft.item.Item;
 import net.minecraft.util.IIcon;
 import net.minecraftforge.common.util.ForgeDirection;
@@ -36,7 +37,17 @@ import org.lwjgl.opengl.GL11;
 
 public class BlockRenderer extends MalisisRenderer {
 
+    // Chunk sections are rebuilt on the client thread
+    private static int culledFaces, culledFacesLastRebuild;
     private Cube cubeModel;
+    // Resolved once per block rendered
+    private boolean emitsLight, calculateAO;
+    // Ambient occlusion of the 3x3x3 blocks around the block, sampled as first needed
+    private final float[] aoSamples = new float[27];
+    private int aoSampled;
+    private ClippedIcon[] clippedIcons;
+    // Parameters of the face being textured, reset for each face
+    private final RenderParameters faceParams = new RenderParameters();
 
     @Override
     protected void initialize() {
@@ -44,17 +55,29 @@ public class BlockRenderer extends MalisisRenderer {
     }
 
     @Override
-    public void render() {
-        shape = cubeModel;
-        final Optional<PackModelContainer> modelContainer = ((IBlockModelContainer) block).getModelContainer(world, x, y, z, blockMetadata);
-        if (modelContainer.isPresent()) {
-            if (modelContainer.get().getModel().isPresent()) {
-                final IModel model = modelContainer.get().getModel().get();
-                if (model instanceof PackModelContainer.PackShape) {
-                    shape = (PackModelContainer.PackShape) model;
-                }
+    public void renderInventoryBlock(Block block, int metadata, int modelId, RenderBlocks renderer) {
+        if (!PackDisplayLists.canBake(metadata)) {
+            super.renderInventoryBlock(block, metadata, modelId, renderer);
+            return;
+        }
+        if (!PackDisplayLists.call(block, metadata, PackDisplayLists.INVENTORY_BLOCK)) {
+            final int list = PackDisplayLists.begin(block, metadata, PackDisplayLists.INVENTORY_BLOCK);
+            try {
+                super.renderInventoryBlock(block, metadata, modelId, renderer);
+            } finally {
+                PackDisplayLists.end();
             }
+            GL11.glCallList(list);
         }
+    }
+
+    @Override
+    public void render() {
+        final PackModelContainer.PackShape packShape = getPackShape(block, x, y, z, blockMetadata, renderType == RenderType.ISBRH_WORLD);
+        shape = packShape == null ? cubeModel : packShape;
+        clippedIcons = world != null ? ((IBlockClipContainer) block).getClipIcons(world, x, y, z, blockMetadata)
+                : ((IClipContainer) block).getClipIcons();
+        resolveLighting();
 
         shape.resetState();
         enableBlending();
@@ -71,34 +94,26 @@ public class BlockRenderer extends MalisisRenderer {
             rp.interpolateUV.set(true);
         }
 
-        if (shape instanceof IModel) {
-            if (renderType == RenderType.ISBRH_WORLD && block instanceof INodeContainer) {
-                if (handleRotation((IModel) shape)) {
-                    shape.applyMatrix();
-                    shape.deductParameters();
-                }
-            }
-
-            if (renderType == RenderType.ISBRH_INVENTORY) {
-                handleScaling((IModel) shape);
-            }
+        if (shape instanceof IModel && renderType == RenderType.ISBRH_INVENTORY) {
+            handleScaling((IModel) shape);
         }
 
         drawShape(shape, rp);
     }
 
+    @Override
+    public void drawFace(Face face, RenderParameters params) {
+        if (Configuration.CULL_SHAPE_FACES && renderType == RenderType.ISBRH_WORLD && face instanceof PackFace && isHidden((PackFace) face)) {
+            culledFaces++;
+            return;
+        }
+        super.drawFace(face, params);
+    }
+
     @Override
     protected IIcon getIcon(RenderParameters params) {
         if (face instanceof PackFace) {
             final PackFace pface = (PackFace) face;
-            final ClippedIcon[] clippedIcons;
-
-            if (world != null) {
-                clippedIcons = ((IBlockClipContainer) block).getClipIcons(world, x, y, z, blockMetadata);
-            } else {
-                clippedIcons = ((IClipContainer) block).getClipIcons();
-            }
-
             if (!PackUtil.isEmptyClip(clippedIcons)) {
                 if (pface.getTextureId() >= clippedIcons.length) {
                     params.icon.set(clippedIcons[0]);
@@ -147,13 +162,12 @@ public class BlockRenderer extends MalisisRenderer {
         float factor = 1;
 
         // Calculate AO
-        if (params.calculateAOColor.get() && aoMatrix != null && Minecraft.isAmbientOcclusionEnabled()
-                && block.getLightValue(world, x, y, z) == 0) {
-            factor = getBlockAmbientOcclusion(world, x + params.direction.get().offsetX, y + params.direction.get().offsetY, z
-                    + params.direction.get().offsetZ);
+        if (params.calculateAOColor.get() && aoMatrix != null && calculateAO) {
+            final ForgeDirection direction = params.direction.get();
+            factor = getAmbientOcclusion(direction.offsetX, direction.offsetY, direction.offsetZ);
 
             for (int[] anAoMatrix : aoMatrix) {
-                factor += getBlockAmbientOcclusion(world, x + anAoMatrix[0], y + anAoMatrix[1], z + anAoMatrix[2]);
+                factor += getAmbientOcclusion(anAoMatrix[0], anAoMatrix[1], anAoMatrix[2]);
             }
 
             factor /= (aoMatrix.length + 1);
@@ -165,11 +179,8 @@ public class BlockRenderer extends MalisisRenderer {
         // Following additional check is to see if the block being rendered should respect Ambient Occlusions light factor or skip it.
         // Almura's light type block have always appeared in bright white.
         // Almura Start
-        if (block instanceof INodeContainer) {
-            LightNode node = ((INodeContainer) block).getNode(LightNode.class);
-            if (node != null && node.getEmission() > 0) {
-                factor = 1;
-            }
+        if (emitsLight) {
+            factor = 1;
         }
         // Almura End
         int r = (int) ((color >> 16 & 255) * factor);
@@ -187,7 +198,8 @@ public class BlockRenderer extends MalisisRenderer {
         // shape.applyMatrix();
         for (Face f : shape.getFaces()) {
             face = f;
-            RenderParameters params = new RenderParameters();
+            final RenderParameters params = faceParams;
+            params.reset();
             params.merge(f.getParameters());
             params.merge(parameters);
 
@@ -226,95 +238,91 @@ public class BlockRenderer extends MalisisRenderer {
         throw new UnsupportedOperationException(getClass().getSimpleName() + " is only meant for blocks.");
     }
 
-    private boolean handleRotation(IModel model) {
-        final RotationNode node = ((INodeContainer) block).getNode(RotationNode.class);
-        if (node == null) {
-            return false;
+    private void resolveLighting() {
+        final LightNode node = block instanceof INodeContainer ? ((INodeContainer) block).getNode(LightNode.class) : null;
+        emitsLight = node != null && node.getEmission() > 0;
+        calculateAO = world != null && Minecraft.isAmbientOcclusionEnabled() && block.getLightValue(world, x, y, z) == 0;
+        aoSampled = 0;
+    }
+
+    private float getAmbientOcclusion(int offsetX, int offsetY, int offsetZ) {
+        if (offsetX < -1 || offsetX > 1 || offsetY < -1 || offsetY > 1 || offsetZ < -1 || offsetZ > 1) {
+            return getBlockAmbientOcclusion(world, x + offsetX, y + offsetY, z + offsetZ);
+        }
+        final int index = (offsetX + 1) * 9 + (offsetY + 1) * 3 + offsetZ + 1;
+        if ((aoSampled & 1 << index) == 0) {
+            aoSamples[index] = getBlockAmbientOcclusion(world, x + offsetX, y + offsetY, z + offsetZ);
+            aoSampled |= 1 << index;
+        }
+        return aoSamples[index];
+    }
+
+    /**
+     * Gets the shape of the pack block at the position.
+     *
+     * @param rotate True to get the copy rotated for the block's rotation
+     * @return The shape or null if the block has none
+     */
+    private PackModelContainer.PackShape getPackShape(Block block, int x, int y, int z, int metadata, boolean rotate) {
+        final Optional<PackModelContainer> modelContainer = ((IBlockModelContainer) block).getModelContainer(world, x, y, z, metadata);
+        if (!modelContainer.isPresent()) {
+            return null;
+        }
+        final RotationNode rotationNode = rotate ? ((INodeContainer) block).getNode(RotationNode.class) : null;
+        if (rotationNode != null && rotationNode.isEnabled()) {
+            // Rotated copies are baked once, the shared shape is never rotated
+            return modelContainer.get().getRotatedShape(rotationNode, RotationMeta.Rotation.getState(metadata)).orNull();
         }
-        if (!node.isEnabled()) {
+        final Optional<IModel> model = modelContainer.get().getModel();
+        return model.isPresent() && model.get() instanceof PackModelContainer.PackShape ? (PackModelContainer.PackShape) model.get() : null;
+    }
+
+    /**
+     * Checks if a face flat against a side of the block is hidden by the neighbour on that side, either an opaque cube or the same block
+     * covering the whole of the facing side.
+     */
+    private boolean isHidden(PackFace face) {
+        final ForgeDirection side = face.getFlushSide();
+        if (side == ForgeDirection.UNKNOWN) {
             return false;
         }
-        final RotationMeta.Rotation rotation = RotationMeta.Rotation.getState(blockMetadata);
-        final RotationProperty property = node.getRotationProperty(rotation);
-        if (property == null) {
-            switch (rotation) {
-                case NORTH:
-                    if (node.isDefaultRotate()) {
-                        model.rotate(180f, 0, -1, 0);
-                    }
-                    break;
-                case SOUTH:
-                    break;
-                case WEST:
-                    if (node.isDefaultRotate()) {
-                        model.rotate(90f, 0, -1, 0);
-                    }
-                    break;
-                case EAST:
-                    if (node.isDefaultRotate()) {
-                        model.rotate(90f, 0, 1, 0);
-                    }
-                    break;
-                case DOWN_NORTH:
-                    if (node.isDefaultRotate()) {
-                        model.rotate(180f, 0, -1, 0);
-                    }
-                    if (node.isDefaultMirrorRotate()) {
-                        model.rotate(90f, -1, 0, 0);
-                    }
-                    break;
-                case DOWN_SOUTH:
-                    break;
-                case DOWN_WEST:
-                    if (node.isDefaultRotate()) {
-                        model.rotate(90f, 0, -1, 0);
-                    }
-                    if (node.isDefaultMirrorRotate()) {
-                        model.rotate(180f, -1, 0, 0);
-                    }
-                    break;
-                case DOWN_EAST:
-                    if (node.isDefaultRotate()) {
-                        model.rotate(90f, 0, 1, 0);
-                    }
-                    if (node.isDefaultMirrorRotate()) {
-                        model.rotate(180f, -1, 0, 0);
-                    }
-                    break;
-                case UP_NORTH:
-                    if (node.isDefaultRotate()) {
-                        model.rotate(180f, 0, -1, 0);
-                    }
-                    break;
-                case UP_SOUTH:
-                    break;
-                case UP_WEST:
-                    if (node.isDefaultRotate()) {
-                        model.rotate(90f, 0, -1, 0);
-                    }
-                    break;
-                case UP_EAST:
-                    if (node.isDefaultRotate()) {
-                        model.rotate(90f, 0, 1, 0);
-                    }
-                    break;
-            }
-        } else {
-            model.rotate(property.getAngle(), property.getX().getId(), property.getY().getId(), property.getZ().getId());
+        final int neighbourX = x + side.offsetX, neighbourY = y + side.offsetY, neighbourZ = z + side.offsetZ;
+        final Block neighbour = world.getBlock(neighbourX, neighbourY, neighbourZ);
+        if (neighbour.isOpaqueCube()) {
+            return true;
         }
+        if (neighbour != block) {
+            return false;
+        }
+        final PackModelContainer.PackShape neighbourShape = getPackShape(neighbour, neighbourX, neighbourY, neighbourZ,
+                world.getBlockMetadata(neighbourX, neighbourY, neighbourZ), true);
+        return neighbourShape != null && neighbourShape.coversSide(side.getOpposite());
+    }
 
-        return true;
+    /**
+     * Called as a chunk section starts rebuilding.
+     */
+    public static void onRebuildStarted() {
+        culledFaces = 0;
+    }
+
+    /**
+     * Called as a chunk section finishes rebuilding.
+     */
+    public static void onRebuildFinished() {
+        culledFacesLastRebuild = culledFaces;
+    }
+
+    /**
+     * Gets the amount of pack shape faces skipped in the last chunk section rebuilt.
+     *
+     * @return The amount
+     */
+    public static int getCulledFacesLastRebuild() {
+        return culledFacesLastRebuild;
     }
 
     private void handleScaling(IModel model) {
-        double max = Double.MIN_VALUE;
-        for (Face fe : model.getFaces()) {
-            for (Vertex vt : model.getVertexes(fe)) {
-                max = Math.max(vt.getX(), max);
-                max = Math.max(vt.getY(), max);
-                max = Math.max(vt.getZ(), max);
-            }
-        }
-        model.scale((float) (1 / max));
+        model.scale(((PackModelContainer.PackShape) model).getUnitScale());
     }
 }
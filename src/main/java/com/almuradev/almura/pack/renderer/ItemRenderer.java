@@ -16,6 +16,9 @@ import net.malisis.core.renderer.MalisisRenderer;
 import net.malisis.core.renderer.RenderType;
 import net.malisis.core.renderer.element.shape.Cube;
 import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.client.IItemRenderer.ItemRenderType;
+import org.lwjgl.opengl.GL11;
 
 public class ItemRenderer extends MalisisRenderer {
 
@@ -31,6 +34,24 @@ public class ItemRenderer extends MalisisRenderer {
         return false;
     }
 
+    @Override
+    public void renderItem(ItemRenderType type, ItemStack item, Object... data) {
+        final int metadata = item.getMetadata();
+        if (!PackDisplayLists.canBake(metadata)) {
+            super.renderItem(type, item, data);
+            return;
+        }
+        if (!PackDisplayLists.call(item.getItem(), metadata, type.ordinal())) {
+            final int list = PackDisplayLists.begin(item.getItem(), metadata, type.ordinal());
+            try {
+                super.renderItem(type, item, data);
+            } finally {
+                PackDisplayLists.end();
+            }
+            GL11.glCallList(list);
+        }
+    }
+
     @Override
     public void render() {
         shape = cubeModel;
@@ -0,0 +1,113 @@
+/**
+ * This file is part of Almura, All Rights Reserved.
+ *
+ * Copyright (c) 2014 AlmuraDev <http://github.com/AlmuraDev/>
+ */
+package com.almuradev.almura.pack.renderer;
+
+import com.almuradev.almura.Configuration;
+import com.google.common.collect.Maps;
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+import net.minecraft.client.renderer.GLAllocation;
+import net.minecraftforge.client.IItemRenderer;
+import org.lwjgl.opengl.GL11;
+
+import java.util.Map;
+
+/**
+ * Display lists of pack items and inventory blocks, compiled the first time each is rendered and called afterwards instead of
+ * tessellating the shape again. Lists are keyed by item or block, metadata and how it is rendered, and are deleted when textures are
+ * stitched again or a model is replaced since the icons and vertices they hold are then stale.
+ *
+ * Only touched on the client thread, apart from {@link #invalidate()}.
+ */
+@SideOnly(Side.CLIENT)
+public class PackDisplayLists {
+
+    /**
+     * Variant of blocks rendered by {@link BlockRenderer} in inventories, after the item render types.
+     */
+    public static final int INVENTORY_BLOCK = IItemRenderer.ItemRenderType.values().length;
+    private static final int VARIANTS = INVENTORY_BLOCK + 1;
+    // Damage values of tools would be unbounded, only low metadata is baked
+    private static final int MAX_METADATA = 16;
+    private static final Map<Object, int[]> LISTS = Maps.newIdentityHashMap();
+    private static volatile boolean invalidated;
+
+    /**
+     * Gets if the object can be baked.
+     *
+     * @param metadata The metadata
+     * @return True if baked rendering is enabled and the metadata is within range
+     */
+    public static boolean canBake(int metadata) {
+        return Configuration.BAKE_ITEM_MODELS && metadata >= 0 && metadata < MAX_METADATA;
+    }
+
+    /**
+     * Calls the list of the object if it has been compiled.
+     *
+     * @param object The item or block
+     * @param metadata The metadata
+     * @param variant The render type ordinal or {@link #INVENTORY_BLOCK}
+     * @return True if called
+     */
+    public static boolean call(Object object, int metadata, int variant) {
+        if (invalidated) {
+            clear();
+        }
+        final int[] lists = LISTS.get(object);
+        if (lists == null || lists[metadata * VARIANTS + variant] == 0) {
+            return false;
+        }
+        GL11.glCallList(lists[metadata * VARIANTS + variant]);
+        return true;
+    }
+
+    /**
+     * Starts compiling the list of the object, everything rendered until {@link #end()} is recorded.
+     *
+     * @param object The item or block
+     * @param metadata The metadata
+     * @param variant The render type ordinal or {@link #INVENTORY_BLOCK}
+     * @return The list
+     */
+    public static int begin(Object object, int metadata, int variant) {
+        int[] lists = LISTS.get(object);
+        if (lists == null) {
+            lists = new int[MAX_METADATA * VARIANTS];
+            LISTS.put(object, lists);
+        }
+        final int list = GLAllocation.generateDisplayLists(1);
+        lists[metadata * VARIANTS + variant] = list;
+        GL11.glNewList(list, GL11.GL_COMPILE);
+        return list;
+    }
+
+    /**
+     * Ends compiling the list started by {@link #begin(Object, int, int)}.
+     */
+    public static void end() {
+        GL11.glEndList();
+    }
+
+    /**
+     * Marks every list stale, they are deleted on the client thread before the next one is called.
+     */
+    public static void invalidate() {
+        invalidated = true;
+    }
+
+    private static void clear() {
+        invalidated = false;
+        for (int[] lists : LISTS.values()) {
+            for (int list : lists) {
+                if (list != 0) {
+                    GLAllocation.deleteDisplayLists(list);
+                }
+            }
+        }
+        LISTS.clear();
+    }
+}
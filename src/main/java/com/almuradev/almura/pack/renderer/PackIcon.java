@@ -15,13 +15,7 @@ import net.minecraft.client.resources.IResourceManager;
 import net.minecraft.util.ResourceLocation;
 
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-
-import javax.imageio.ImageIO;
 
 public class PackIcon extends MalisisIcon {
 
@@ -41,14 +35,12 @@ public class PackIcon extends MalisisIcon {
     public boolean load(IResourceManager manager, ResourceLocation location) {
         String textureName = location.getResourcePath();
 
-        final Path texturePath = Paths.get(Filesystem.CONFIG_VERSION_PATH.toString(), "images" + File.separator + textureName + ".png");
-
         final int mipmapLevels = Minecraft.getMinecraft().gameSettings.mipmapLevels;
         final boolean anisotropic = Minecraft.getMinecraft().gameSettings.anisotropicFiltering > 1.0F;
 
         try {
             BufferedImage[] textures = new BufferedImage[1 + mipmapLevels];
-            textures[0] = ImageIO.read(Files.newInputStream(texturePath));
+            textures[0] = PackTextureCache.getImage(textureName);
             loadSprite(textures, null, anisotropic);
             return false;
         } catch (RuntimeException e) {
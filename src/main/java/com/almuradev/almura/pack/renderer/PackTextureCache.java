@@ -0,0 +1,249 @@
+/**
+ * This file is part of Almura, All Rights Reserved.
+ *
+ * Copyright (c) 2014 AlmuraDev <http://github.com/AlmuraDev/>
+ */
+package com.almuradev.almura.pack.renderer;
+
+import com.almuradev.almura.Almura;
+import com.almuradev.almura.Configuration;
+import com.almuradev.almura.Filesystem;
+import com.almuradev.almura.pack.Pack;
+import com.almuradev.almura.pack.block.PackBlock;
+import com.almuradev.almura.pack.container.PackContainerBlock;
+import com.almuradev.almura.pack.crop.PackCrops;
+import com.almuradev.almura.pack.crop.PackSeeds;
+import com.almuradev.almura.pack.item.PackFood;
+import com.almuradev.almura.pack.item.PackItem;
+import com.almuradev.almura.pack.node.ContainerNode;
+import com.almuradev.almura.pack.node.container.StateProperty;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+import net.minecraft.block.Block;
+import net.minecraft.item.Item;
+
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Decodes pack images on background threads ahead of stitching. {@link PackIcon} and the clipped icon calculation take the decoded image
+ * from here instead of each reading the file, images not preloaded are decoded on the calling thread.
+ */
+@SideOnly(Side.CLIENT)
+public class PackTextureCache {
+
+    private static final int TEXTURES_BLOCKS = 0;
+    private static final int TEXTURES_ITEMS = 1;
+    private static final ConcurrentMap<String, Future<BufferedImage>> IMAGES = Maps.newConcurrentMap();
+    // Textures preloaded for each atlas and not yet released
+    private static final Set<String> PENDING_BLOCKS = Sets.newHashSet();
+    private static final Set<String> PENDING_ITEMS = Sets.newHashSet();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+            new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "Almura Texture Decoder #" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    /**
+     * Starts decoding every texture referenced by a loaded pack, for both atlases.
+     */
+    public static void preload() {
+        preload(TEXTURES_BLOCKS);
+        preload(TEXTURES_ITEMS);
+    }
+
+    /**
+     * Starts decoding every texture a loaded pack stitches into the atlas.
+     *
+     * @param textureType The texture type of the atlas, 0 for blocks and 1 for items
+     */
+    public static void preload(int textureType) {
+        if (textureType != TEXTURES_BLOCKS && textureType != TEXTURES_ITEMS) {
+            return;
+        }
+        final Set<String> textureNames = Sets.newHashSet();
+        for (Pack pack : Pack.getPacks().values()) {
+            if (textureType == TEXTURES_BLOCKS) {
+                for (Block block : pack.getBlocks()) {
+                    if (block instanceof PackBlock || block instanceof PackCrops || block instanceof PackContainerBlock) {
+                        textureNames.add(block.getTextureName());
+                    }
+                    if (block instanceof PackContainerBlock) {
+                        final ContainerNode containerNode = ((PackContainerBlock) block).getNode(ContainerNode.class);
+                        if (containerNode != null) {
+                            for (StateProperty state : containerNode.getValue()) {
+                                textureNames.add(state.getTextureName());
+                            }
+                        }
+                    }
+                }
+            } else {
+                for (Item item : pack.getItems()) {
+                    if (item instanceof PackItem) {
+                        textureNames.add(((PackItem) item).getTextureName());
+                    } else if (item instanceof PackFood) {
+                        textureNames.add(((PackFood) item).getTextureName());
+                    } else if (item instanceof PackSeeds) {
+                        textureNames.add(((PackSeeds) item).getTextureName());
+                    }
+                }
+            }
+        }
+        getPending(textureType).addAll(textureNames);
+        preload(textureNames);
+    }
+
+    /**
+     * Starts decoding every texture not already decoded or decoding.
+     *
+     * @param textureNames The texture names, without the .png extension
+     */
+    public static void preload(Collection<String> textureNames) {
+        for (final String textureName : textureNames) {
+            if (IMAGES.containsKey(textureName)) {
+                continue;
+            }
+            IMAGES.putIfAbsent(textureName, EXECUTOR.submit(new Callable<BufferedImage>() {
+                @Override
+                public BufferedImage call() throws Exception {
+                    return read(textureName);
+                }
+            }));
+        }
+    }
+
+    /**
+     * Gets the decoded image, waiting on the preload if it is still decoding.
+     *
+     * @param textureName The texture name, without the .png extension
+     * @return The image
+     * @throws IOException If the image could not be read
+     */
+    public static BufferedImage getImage(String textureName) throws IOException {
+        final Future<BufferedImage> future = IMAGES.get(textureName);
+        if (future == null) {
+            return read(textureName);
+        }
+        return await(future);
+    }
+
+    /**
+     * Gets the dimension of the texture, from the decoded image if it was preloaded or else from {@link PackTextureMetadata}.
+     *
+     * @param textureName The texture name, without the .png extension
+     * @return The dimension or null if the image format is not recognized
+     * @throws IOException If the image could not be read
+     */
+    public static Dimension getDimension(String textureName) throws IOException {
+        final Future<BufferedImage> future = IMAGES.get(textureName);
+        if (future != null) {
+            final BufferedImage image = await(future);
+            if (image == null) {
+                return null;
+            }
+            PackTextureMetadata.put(textureName, image.getWidth(), image.getHeight());
+            return new Dimension(image.getWidth(), image.getHeight());
+        }
+        return PackTextureMetadata.getDimension(textureName);
+    }
+
+    /**
+     * Drops the decoded images preloaded for the atlas, unless the other atlas still has to stitch them. Called once the atlas has
+     * uploaded them, atlases are stitched in no fixed order on a resource reload.
+     *
+     * @param textureType The texture type of the atlas, 0 for blocks and 1 for items
+     */
+    public static void release(int textureType) {
+        if (textureType != TEXTURES_BLOCKS && textureType != TEXTURES_ITEMS) {
+            return;
+        }
+        final Set<String> pending = getPending(textureType);
+        final Set<String> other = getPending(textureType == TEXTURES_BLOCKS ? TEXTURES_ITEMS : TEXTURES_BLOCKS);
+        for (String textureName : pending) {
+            if (!other.contains(textureName)) {
+                final Future<BufferedImage> future = IMAGES.remove(textureName);
+                if (future != null) {
+                    future.cancel(false);
+                }
+            }
+        }
+        pending.clear();
+
+        if (other.isEmpty()) {
+            // Anything decoded on demand rather than preloaded
+            for (Future<BufferedImage> future : IMAGES.values()) {
+                future.cancel(false);
+            }
+            IMAGES.clear();
+
+            if (Configuration.DEBUG_ALL || Configuration.DEBUG_PACKS) {
+                Almura.LOGGER.info("Texture metadata cache: [" + PackTextureMetadata.getHits() + "] hits, [" + PackTextureMetadata.getMisses()
+                        + "] misses, [" + PackTextureMetadata.getBytesRead() + "] bytes read.");
+            }
+        }
+    }
+
+    private static Set<String> getPending(int textureType) {
+        return textureType == TEXTURES_BLOCKS ? PENDING_BLOCKS : PENDING_ITEMS;
+    }
+
+    public static Path getPath(String textureName) {
+        return Paths.get(Filesystem.CONFIG_IMAGES_PATH.toString(), textureName + ".png");
+    }
+
+    private static BufferedImage read(String textureName) throws IOException {
+        try (InputStream stream = Files.newInputStream(getPath(textureName))) {
+            return ImageIO.read(stream);
+        }
+    }
+
+    private static BufferedImage await(Future<BufferedImage> future) throws IOException {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
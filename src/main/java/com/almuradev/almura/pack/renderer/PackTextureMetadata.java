@@ -0,0 +1,151 @@
+/**
+ * This file is part of Almura, All Rights Reserved.
+ *
+ * Copyright (c) 2014 AlmuraDev <http://github.com/AlmuraDev/>
+ */
+package com.almuradev.almura.pack.renderer;
+
+import com.almuradev.almurasdk.FileSystem;
+import com.google.common.io.CountingInputStream;
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+import java.awt.Dimension;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of texture dimensions keyed by texture name. PNGs are measured from their IHDR chunk, the rest of the file is never read.
+ * Entries are checked against the modification time of the file so an edited texture is measured again on the next resource reload.
+ */
+@SideOnly(Side.CLIENT)
+public class PackTextureMetadata {
+
+    private static final int MAX_ENTRIES = 2048;
+    private static final long PNG_SIGNATURE = 0x89504E470D0A1A0AL;
+    private static final int IHDR = 0x49484452;
+    // Signature, chunk length, chunk type, width and height
+    private static final int PNG_HEADER_LENGTH = 24;
+
+    private static final Map<String, Entry> ENTRIES = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+    private static final AtomicLong BYTES_READ = new AtomicLong();
+
+    /**
+     * Gets the dimension of the texture.
+     *
+     * @param textureName The texture name, without the .png extension
+     * @return The dimension or null if the image format is not recognized
+     * @throws IOException If the file could not be read
+     */
+    public static Dimension getDimension(String textureName) throws IOException {
+        final Path path = PackTextureCache.getPath(textureName);
+        final long modified = Files.getLastModifiedTime(path).toMillis();
+
+        synchronized (ENTRIES) {
+            final Entry entry = ENTRIES.get(textureName);
+            if (entry != null && entry.modified == modified) {
+                HITS.incrementAndGet();
+                return new Dimension(entry.width, entry.height);
+            }
+        }
+
+        MISSES.incrementAndGet();
+        final Dimension dimension = read(path);
+        if (dimension != null) {
+            put(textureName, modified, dimension.width, dimension.height);
+        }
+        return dimension;
+    }
+
+    /**
+     * Records the dimension of a texture decoded elsewhere.
+     *
+     * @param textureName The texture name, without the .png extension
+     * @param width The width
+     * @param height The height
+     */
+    public static void put(String textureName, int width, int height) {
+        try {
+            put(textureName, Files.getLastModifiedTime(PackTextureCache.getPath(textureName)).toMillis(), width, height);
+        } catch (IOException ignored) {
+        }
+    }
+
+    public static long getHits() {
+        return HITS.get();
+    }
+
+    public static long getMisses() {
+        return MISSES.get();
+    }
+
+    public static long getBytesRead() {
+        return BYTES_READ.get();
+    }
+
+    private static void put(String textureName, long modified, int width, int height) {
+        synchronized (ENTRIES) {
+            ENTRIES.put(textureName, new Entry(modified, width, height));
+        }
+    }
+
+    private static Dimension read(Path path) throws IOException {
+        try (InputStream stream = Files.newInputStream(path)) {
+            final byte[] header = new byte[PNG_HEADER_LENGTH];
+            int length = 0;
+            while (length < header.length) {
+                final int read = stream.read(header, length, header.length - length);
+                if (read < 0) {
+                    break;
+                }
+                length += read;
+            }
+            BYTES_READ.addAndGet(length);
+
+            if (length == PNG_HEADER_LENGTH && readLong(header, 0) == PNG_SIGNATURE && readInt(header, 12) == IHDR) {
+                return new Dimension(readInt(header, 16), readInt(header, 20));
+            }
+        }
+
+        // Not a PNG, let ImageIO work it out
+        try (CountingInputStream stream = new CountingInputStream(Files.newInputStream(path))) {
+            try {
+                return FileSystem.getImageDimension(stream);
+            } finally {
+                BYTES_READ.addAndGet(stream.getCount());
+            }
+        }
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16 | (bytes[offset + 2] & 0xFF) << 8 | bytes[offset + 3] & 0xFF;
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        return (readInt(bytes, offset) & 0xFFFFFFFFL) << 32 | readInt(bytes, offset + 4) & 0xFFFFFFFFL;
+    }
+
+    private static final class Entry {
+
+        private final long modified;
+        private final int width, height;
+
+        private Entry(long modified, int width, int height) {
+            this.modified = modified;
+            this.width = width;
+            this.height = height;
+        }
+    }
+}
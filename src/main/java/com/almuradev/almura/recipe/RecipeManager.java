@@ -64,6 +64,21 @@ public class RecipeManager {
         return recipe;
     }
 
+    /**
+     * Removes a recipe previously returned by {@link #registerRecipe} from the crafting or smelting lists.
+     *
+     * @param recipe The recipe
+     */
+    public static void unregisterRecipe(IRecipe recipe) {
+        if (recipe instanceof ISmeltRecipe) {
+            // Smelting inputs are keyed by stack identity, the stack we registered is the one the recipe holds
+            FurnaceRecipes.instance().getSmeltingList().remove(((ISmeltRecipe) recipe).getInput());
+            SMELT_RECIPES.remove(recipe);
+        } else {
+            CraftingManager.getInstance().getRecipeList().remove(recipe);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public static <R extends IRecipe> Optional<R> findMatch(Class<? extends R> clazz, R recipe) {
         if (clazz == IShapedRecipe.class) {
@@ -5,9 +5,25 @@
  */
 package com.almuradev.almura.server;
 
+import com.almuradev.almura.Almura;
 import com.almuradev.almura.CommonProxy;
+import com.almuradev.almura.Configuration;
+import cpw.mods.fml.common.event.FMLPreInitializationEvent;
+
+import java.io.IOException;
 
 public class ServerProxy extends CommonProxy {
 
     public static final String CLASSPATH = "com.almuradev.almura.server.ServerProxy";
+
+    @Override
+    public void onPreInitialization(FMLPreInitializationEvent event) {
+        // The client loads the configuration with its game settings, before any mod
+        try {
+            Configuration.load();
+        } catch (IOException e) {
+            Almura.LOGGER.error("Failed to load configuration file in the config folder.", e);
+        }
+        super.onPreInitialization(event);
+    }
 }
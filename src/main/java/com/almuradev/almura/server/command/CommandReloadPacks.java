@@ -0,0 +1,46 @@
+/**
+ * This file is part of Almura, All Rights Reserved.
+ *
+ * Copyright (c) 2014 AlmuraDev <http://github.com/AlmuraDev/>
+ */
+package com.almuradev.almura.server.command;
+
+import com.almuradev.almura.Almura;
+import com.almuradev.almura.pack.PackReloader;
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.util.ChatComponentText;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public class CommandReloadPacks extends CommandBase {
+
+    @Override
+    public String getCommandName() {
+        return "reloadpacks";
+    }
+
+    @Override
+    public String getCommandUsage(ICommandSender sender) {
+        return "/reloadpacks";
+    }
+
+    @Override
+    public int getRequiredPermissionLevel() {
+        return 3;
+    }
+
+    @Override
+    public void processCommand(ICommandSender sender, String[] args) {
+        final List<Path> reloaded = PackReloader.reloadChanged();
+        for (Path path : reloaded) {
+            Almura.LOGGER.info("Reloaded [" + path + "].");
+        }
+        sender.addChatMessage(new ChatComponentText("Reloaded [" + reloaded.size() + "] changed pack files. New objects require a restart."));
+        if (!PackReloader.reloadsClientNodes()) {
+            sender.addChatMessage(
+                    new ChatComponentText("Light emission, light opacity and collision changes require a restart on a dedicated server."));
+        }
+    }
+}
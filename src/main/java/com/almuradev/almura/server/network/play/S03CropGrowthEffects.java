@@ -0,0 +1,118 @@
+/**
+ * This file is part of Almura, All Rights Reserved.
+ *
+ * Copyright (c) 2014 AlmuraDev <http://github.com/AlmuraDev/>
+ */
+package com.almuradev.almura.server.network.play;
+
+import cpw.mods.fml.common.network.simpleimpl.IMessage;
+import cpw.mods.fml.common.network.simpleimpl.IMessageHandler;
+import cpw.mods.fml.common.network.simpleimpl.MessageContext;
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.client.Minecraft;
+import net.minecraft.world.World;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The growth particles of every crop grown near the player in a tick. The client spawns them the way it would from the particle packets
+ * sent for each crop before.
+ */
+public class S03CropGrowthEffects implements IMessage, IMessageHandler<S03CropGrowthEffects, IMessage> {
+
+    public static final int HEIGHT_SCALE = 16;
+    private static final String PARTICLE = "happyVillager";
+    private static final double OFFSET = 0.02;
+
+    public int[] xs = new int[8], ys = new int[8], zs = new int[8];
+    public byte[] heights = new byte[8], counts = new byte[8];
+    public int size;
+
+    public S03CropGrowthEffects() {
+    }
+
+    public void add(int x, int y, int z, byte height, byte count) {
+        if (size == xs.length) {
+            xs = Arrays.copyOf(xs, size * 2);
+            ys = Arrays.copyOf(ys, size * 2);
+            zs = Arrays.copyOf(zs, size * 2);
+            heights = Arrays.copyOf(heights, size * 2);
+            counts = Arrays.copyOf(counts, size * 2);
+        }
+        xs[size] = x;
+        ys[size] = y;
+        zs[size] = z;
+        heights[size] = height;
+        counts[size] = count;
+        size++;
+    }
+
+    @Override
+    public void fromBytes(ByteBuf buf) {
+        size = buf.readInt();
+        xs = new int[size];
+        ys = new int[size];
+        zs = new int[size];
+        heights = new byte[size];
+        counts = new byte[size];
+        for (int i = 0; i < size; i++) {
+            xs[i] = buf.readInt();
+            ys[i] = buf.readUnsignedByte();
+            zs[i] = buf.readInt();
+            heights[i] = buf.readByte();
+            counts[i] = buf.readByte();
+        }
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf) {
+        buf.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            buf.writeInt(xs[i]);
+            buf.writeByte(ys[i]);
+            buf.writeInt(zs[i]);
+            buf.writeByte(heights[i]);
+            buf.writeByte(counts[i]);
+        }
+    }
+
+    @SideOnly(Side.CLIENT)
+    @Override
+    public IMessage onMessage(final S03CropGrowthEffects message, MessageContext ctx) {
+        if (ctx.side.isClient()) {
+            // Particles are only safe to spawn on the client thread
+            Minecraft.getMinecraft().func_152344_a(new Runnable() {
+                @Override
+                public void run() {
+                    message.spawnParticles(Minecraft.getMinecraft().theWorld);
+                }
+            });
+        }
+        return null;
+    }
+
+    @SideOnly(Side.CLIENT)
+    private void spawnParticles(World world) {
+        if (world == null) {
+            return;
+        }
+        final Random random = world.rand;
+        for (int i = 0; i < size; i++) {
+            final double x = xs[i] + random.nextFloat();
+            final double y = ys[i] + random.nextFloat() * heights[i] / HEIGHT_SCALE;
+            final double z = zs[i] + random.nextFloat();
+            // As NetHandlerPlayClient spawns a particle packet with a speed of 1, a count of 0 is one particle moving by the offset
+            if (counts[i] == 0) {
+                world.spawnParticle(PARTICLE, x, y, z, OFFSET, OFFSET, OFFSET);
+                continue;
+            }
+            for (int j = 0; j < counts[i]; j++) {
+                world.spawnParticle(PARTICLE, x + random.nextGaussian() * OFFSET, y + random.nextGaussian() * OFFSET,
+                        z + random.nextGaussian() * OFFSET, random.nextGaussian(), random.nextGaussian(), random.nextGaussian());
+            }
+        }
+    }
+}